@@ -0,0 +1,358 @@
+import engine.BitBoard;
+import engine.Fen;
+import engine.Perft;
+import enums.Color;
+import enums.PieceType;
+import pieces.Bishop;
+import pieces.Knight;
+import pieces.Piece;
+import pieces.Queen;
+import pieces.Rook;
+
+/**
+ * Perft on the original Piece[][] layout next to engine.Perft on the bitboard, for the
+ * same positions and depths, to compare the two board representations.
+ *
+ * The array generator uses what the grid offers: every piece is asked through
+ * Piece.canMove about each of the 64 squares, and a move is legal when no opposing
+ * piece can reach the king afterwards. Castling, en passant and promotions are added
+ * on top, so both generators must report the published node counts.
+ *
+ * Usage: ArrayPerft [maxDepth]  (default 5)
+ */
+public class ArrayPerft {
+
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_MOVES = 256;
+
+    // move kinds, stored above the from and to squares
+    private static final int NORMAL = 0;
+    private static final int DOUBLE_PUSH = 1;
+    private static final int EN_PASSANT = 2;
+    private static final int CASTLE = 3;
+    // PROMOTION + 0..3 for knight, bishop, rook, queen
+    private static final int PROMOTION = 4;
+
+    private static final int NO_SQUARE = -1;
+
+    private final Piece[][] grid = new Piece[8][8];
+    private final int[][] moveStack = new int[MAX_DEPTH][MAX_MOVES];
+    private final Piece[] captured = new Piece[MAX_DEPTH];
+    private final Piece[] promoted = new Piece[MAX_DEPTH];
+    private final int[] castlingBefore = new int[MAX_DEPTH];
+    private final int[] enPassantBefore = new int[MAX_DEPTH];
+    // indexed by BitBoard.WHITE / BLACK
+    private final int[] kingRow = new int[2];
+    private final int[] kingCol = new int[2];
+
+    private int side;
+    private int castling;
+    private int enPassant;
+
+    public void load(String fen) {
+        Board board = new Board();
+        board.loadFen(fen);
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(row, col);
+                grid[row][col] = piece;
+                if (piece != null && piece.getType() == PieceType.KING) {
+                    kingRow[colorIndex(piece)] = row;
+                    kingCol[colorIndex(piece)] = col;
+                }
+            }
+        }
+        BitBoard bits = board.getBitBoard();
+        side = bits.getSideToMove();
+        castling = bits.getCastlingRights();
+        enPassant = bits.getEnPassantSquare() == BitBoard.EMPTY ? NO_SQUARE : bits.getEnPassantSquare();
+    }
+
+    public long perft(int depth) {
+        return depth == 0 ? 1 : perft(0, depth);
+    }
+
+    private long perft(int ply, int depth) {
+        int[] moves = moveStack[ply];
+        int count = generate(moves);
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            makeMove(ply, moves[i]);
+            int mover = side ^ 1;
+            if (!isAttacked(kingRow[mover], kingCol[mover], side)) {
+                nodes += depth == 1 ? 1 : perft(ply + 1, depth - 1);
+            }
+            unmakeMove(ply, moves[i]);
+        }
+        return nodes;
+    }
+
+    // pseudo-legal moves; the king may still be left in check
+    private int generate(int[] moves) {
+        int count = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = grid[row][col];
+                if (piece == null || colorIndex(piece) != side) {
+                    continue;
+                }
+                boolean pawn = piece.getType() == PieceType.PAWN;
+                for (int toRow = 0; toRow < 8; toRow++) {
+                    for (int toCol = 0; toCol < 8; toCol++) {
+                        if (!piece.canMove(toRow, toCol, grid)) {
+                            continue;
+                        }
+                        if (pawn && (toRow == 0 || toRow == 7)) {
+                            for (int promotion = 0; promotion < 4; promotion++) {
+                                moves[count++] = encode(row, col, toRow, toCol, PROMOTION + promotion);
+                            }
+                        } else {
+                            int kind = pawn && Math.abs(toRow - row) == 2 ? DOUBLE_PUSH : NORMAL;
+                            moves[count++] = encode(row, col, toRow, toCol, kind);
+                        }
+                    }
+                }
+            }
+        }
+        count = addEnPassant(moves, count);
+        return addCastling(moves, count);
+    }
+
+    private int addEnPassant(int[] moves, int count) {
+        if (enPassant == NO_SQUARE) {
+            return count;
+        }
+        int toRow = BitBoard.row(enPassant);
+        int toCol = BitBoard.col(enPassant);
+        int fromRow = side == BitBoard.WHITE ? toRow + 1 : toRow - 1;
+        for (int fromCol = toCol - 1; fromCol <= toCol + 1; fromCol += 2) {
+            if (fromCol < 0 || fromCol > 7) {
+                continue;
+            }
+            Piece piece = grid[fromRow][fromCol];
+            if (piece != null && piece.getType() == PieceType.PAWN && colorIndex(piece) == side) {
+                moves[count++] = encode(fromRow, fromCol, toRow, toCol, EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    // the king may not castle out of, through or into check
+    private int addCastling(int[] moves, int count) {
+        int row = side == BitBoard.WHITE ? 7 : 0;
+        int kingSide = side == BitBoard.WHITE ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE;
+        int queenSide = side == BitBoard.WHITE ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+        int enemy = side ^ 1;
+
+        if ((castling & kingSide) != 0 && grid[row][5] == null && grid[row][6] == null
+                && !isAttacked(row, 4, enemy) && !isAttacked(row, 5, enemy) && !isAttacked(row, 6, enemy)) {
+            moves[count++] = encode(row, 4, row, 6, CASTLE);
+        }
+        if ((castling & queenSide) != 0 && grid[row][1] == null && grid[row][2] == null && grid[row][3] == null
+                && !isAttacked(row, 4, enemy) && !isAttacked(row, 3, enemy) && !isAttacked(row, 2, enemy)) {
+            moves[count++] = encode(row, 4, row, 2, CASTLE);
+        }
+        return count;
+    }
+
+    private boolean isAttacked(int row, int col, int byColor) {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece piece = grid[r][c];
+                if (piece == null || colorIndex(piece) != byColor) {
+                    continue;
+                }
+                if (piece.getType() == PieceType.PAWN) {
+                    // Pawn.canMove only allows a diagonal onto an occupied square
+                    int forward = byColor == BitBoard.WHITE ? -1 : 1;
+                    if (row == r + forward && Math.abs(col - c) == 1) {
+                        return true;
+                    }
+                } else if (piece.canMove(row, col, grid)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void makeMove(int ply, int move) {
+        int fromRow = fromRow(move);
+        int fromCol = fromCol(move);
+        int toRow = toRow(move);
+        int toCol = toCol(move);
+        int kind = kind(move);
+        Piece piece = grid[fromRow][fromCol];
+
+        castlingBefore[ply] = castling;
+        enPassantBefore[ply] = enPassant;
+        if (kind == EN_PASSANT) {
+            captured[ply] = grid[fromRow][toCol];
+            grid[fromRow][toCol] = null;
+        } else {
+            captured[ply] = grid[toRow][toCol];
+        }
+
+        grid[fromRow][fromCol] = null;
+        grid[toRow][toCol] = piece;
+        piece.move(toRow, toCol);
+
+        if (kind >= PROMOTION) {
+            promoted[ply] = piece;
+            grid[toRow][toCol] = promote(piece.getColor(), kind - PROMOTION, toRow, toCol);
+        } else if (kind == CASTLE) {
+            int rookFrom = toCol == 6 ? 7 : 0;
+            int rookTo = toCol == 6 ? 5 : 3;
+            Piece rook = grid[toRow][rookFrom];
+            grid[toRow][rookFrom] = null;
+            grid[toRow][rookTo] = rook;
+            rook.move(toRow, rookTo);
+        }
+        if (piece.getType() == PieceType.KING) {
+            kingRow[side] = toRow;
+            kingCol[side] = toCol;
+        }
+
+        castling &= ~(castlingLost(fromRow, fromCol) | castlingLost(toRow, toCol));
+        enPassant = kind == DOUBLE_PUSH ? BitBoard.square((fromRow + toRow) / 2, fromCol) : NO_SQUARE;
+        side ^= 1;
+    }
+
+    private void unmakeMove(int ply, int move) {
+        side ^= 1;
+        int fromRow = fromRow(move);
+        int fromCol = fromCol(move);
+        int toRow = toRow(move);
+        int toCol = toCol(move);
+        int kind = kind(move);
+
+        Piece piece = kind >= PROMOTION ? promoted[ply] : grid[toRow][toCol];
+        grid[fromRow][fromCol] = piece;
+        piece.move(fromRow, fromCol);
+        if (kind == EN_PASSANT) {
+            grid[toRow][toCol] = null;
+            grid[fromRow][toCol] = captured[ply];
+        } else {
+            grid[toRow][toCol] = captured[ply];
+        }
+        if (kind == CASTLE) {
+            int rookFrom = toCol == 6 ? 7 : 0;
+            int rookTo = toCol == 6 ? 5 : 3;
+            Piece rook = grid[toRow][rookTo];
+            grid[toRow][rookTo] = null;
+            grid[toRow][rookFrom] = rook;
+            rook.move(toRow, rookFrom);
+        }
+        if (piece.getType() == PieceType.KING) {
+            kingRow[side] = fromRow;
+            kingCol[side] = fromCol;
+        }
+        captured[ply] = null;
+        promoted[ply] = null;
+        castling = castlingBefore[ply];
+        enPassant = enPassantBefore[ply];
+    }
+
+    // rights lost when a king or rook square is moved from or captured on
+    private static int castlingLost(int row, int col) {
+        if (row == 7) {
+            return col == 4 ? BitBoard.WHITE_KING_SIDE | BitBoard.WHITE_QUEEN_SIDE
+                    : col == 7 ? BitBoard.WHITE_KING_SIDE : col == 0 ? BitBoard.WHITE_QUEEN_SIDE : 0;
+        }
+        if (row == 0) {
+            return col == 4 ? BitBoard.BLACK_KING_SIDE | BitBoard.BLACK_QUEEN_SIDE
+                    : col == 7 ? BitBoard.BLACK_KING_SIDE : col == 0 ? BitBoard.BLACK_QUEEN_SIDE : 0;
+        }
+        return 0;
+    }
+
+    private static Piece promote(Color color, int promotion, int row, int col) {
+        switch (promotion) {
+            case 0:
+                return new Knight(color, row, col);
+            case 1:
+                return new Bishop(color, row, col);
+            case 2:
+                return new Rook(color, row, col);
+            default:
+                return new Queen(color, row, col);
+        }
+    }
+
+    private static int colorIndex(Piece piece) {
+        return BitBoard.colorIndex(piece.getColor());
+    }
+
+    private static int encode(int fromRow, int fromCol, int toRow, int toCol, int kind) {
+        return fromRow | fromCol << 3 | toRow << 6 | toCol << 9 | kind << 12;
+    }
+
+    private static int fromRow(int move) {
+        return move & 7;
+    }
+
+    private static int fromCol(int move) {
+        return (move >>> 3) & 7;
+    }
+
+    private static int toRow(int move) {
+        return (move >>> 6) & 7;
+    }
+
+    private static int toCol(int move) {
+        return (move >>> 9) & 7;
+    }
+
+    private static int kind(int move) {
+        return move >>> 12;
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Object[][] positions = {
+                {Fen.START_POSITION, new long[]{20, 400, 8902, 197281, 4865609}},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[]{48, 2039, 97862, 4085603}},
+                {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[]{14, 191, 2812, 43238, 674624}}
+        };
+
+        Perft bitboardPerft = new Perft();
+        BitBoard bitboard = new BitBoard();
+        ArrayPerft arrayPerft = new ArrayPerft();
+        boolean allPassed = true;
+
+        // one untimed pass so both sides are compiled before they are compared
+        for (Object[] position : positions) {
+            Fen.load(bitboard, (String) position[0]);
+            bitboardPerft.perft(bitboard, 3);
+            arrayPerft.load((String) position[0]);
+            arrayPerft.perft(3);
+        }
+
+        System.out.printf("%-6s %12s %12s %12s %9s%n", "depth", "nodes", "array ms", "bitboard ms", "speedup");
+        for (Object[] position : positions) {
+            String fen = (String) position[0];
+            long[] expected = (long[]) position[1];
+            Fen.load(bitboard, fen);
+            arrayPerft.load(fen);
+            System.out.println(fen);
+
+            for (int depth = 1; depth <= Math.min(maxDepth, expected.length); depth++) {
+                long start = System.nanoTime();
+                long arrayNodes = arrayPerft.perft(depth);
+                long arrayNanos = Math.max(1, System.nanoTime() - start);
+                start = System.nanoTime();
+                long bitboardNodes = bitboardPerft.perft(bitboard, depth);
+                long bitboardNanos = Math.max(1, System.nanoTime() - start);
+
+                boolean passed = arrayNodes == expected[depth - 1] && bitboardNodes == expected[depth - 1];
+                allPassed &= passed;
+                System.out.printf("%-6d %12d %12.1f %12.1f %8.1fx %s%n", depth, bitboardNodes,
+                        arrayNanos / 1e6, bitboardNanos / 1e6, (double) arrayNanos / bitboardNanos,
+                        passed ? "" : "MISMATCH array " + arrayNodes + " expected " + expected[depth - 1]);
+            }
+        }
+
+        System.out.println(allPassed ? "Both layouts match the published counts." : "Perft mismatch found.");
+    }
+}
@@ -1,17 +1,34 @@
 import dtos.Move;
+import engine.AttackMap;
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
 import enums.Color;
 import pieces.*;
+import tablebase.Tablebase;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 public class Board {
 
     private Piece[][] board;
+    private BitBoard bitBoard;
+    private final AttackMap attackMap = new AttackMap();
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    // Piece objects touched by each played move, so unmakeMove can put them back
+    private int[] playedMoves = new int[256];
+    private Piece[] movedPieces = new Piece[256];
+    private Piece[] capturedPieces = new Piece[256];
+    private int playedCount;
+    private Tablebase tablebase;
     private static final int ROWS = 8;
     private static final int COLS = 8;
 
     public Board(){
         board = new Piece[ROWS][COLS];
+        bitBoard = new BitBoard();
         initialize();
     }
 
@@ -41,41 +58,252 @@ public class Board {
 
         //WHITE PAWN
         for(int col = 0; col < COLS; col++){
-            board[6][col] = new Pawn(Color.WHITE, 1, col);
+            board[6][col] = new Pawn(Color.WHITE, 6, col);
         }
 
+        syncBitBoard();
+    }
+
+    private void syncBitBoard(){
+        bitBoard.clear();
+
+        for(int row = 0; row < ROWS; row++){
+            for(int col = 0; col < COLS; col++){
+                Piece piece = board[row][col];
+                if(Objects.nonNull(piece)){
+                    int code = BitBoard.piece(BitBoard.colorIndex(piece.getColor()), BitBoard.typeIndex(piece.getType()));
+                    bitBoard.putPiece(code, BitBoard.square(row, col));
+                }
+            }
+        }
+
+        bitBoard.setSideToMove(BitBoard.WHITE);
+        bitBoard.setCastlingRights(BitBoard.ALL_CASTLING);
+        attackMap.clearHistory();
+        attackMap.update(bitBoard);
+    }
+
+    /**
+     * Replaces the position with the one described by fen.
+     */
+    public void loadFen(String fen){
+        Fen.load(bitBoard, fen);
+        Arrays.fill(movedPieces, 0, playedCount, null);
+        Arrays.fill(capturedPieces, 0, playedCount, null);
+        playedCount = 0;
+
+        for(int row = 0; row < ROWS; row++){
+            for(int col = 0; col < COLS; col++){
+                int code = bitBoard.pieceAt(BitBoard.square(row, col));
+                board[row][col] = code == BitBoard.EMPTY ? null
+                        : createPiece(BitBoard.typeOf(code), code, row, col);
+            }
+        }
+        attackMap.clearHistory();
+        attackMap.update(bitBoard);
+    }
+
+    public String toFen(){
+        return Fen.toFen(bitBoard);
     }
 
     public Piece getPiece(int row, int col){
+        if(!bitBoard.isOccupied(BitBoard.square(row, col))){
+            return null;
+        }
         return board[row][col];
     }
 
-    public boolean movePiece(Move move, Color currentPlayer){
+    public BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
+    public long getHash() {
+        return bitBoard.getHash();
+    }
+
+    public int getHalfMoveClock() {
+        return bitBoard.getHalfMoveClock();
+    }
 
-        Piece piece = board[move.getFromRow()][move.getFromCol()];
+    public void setTablebase(Tablebase tablebase){
+        this.tablebase = tablebase;
+    }
 
-        if(Objects.isNull(piece) || !piece.getColor().equals(currentPlayer)){
+    /**
+     * Exact result of the position from the endgame tables, packed as in
+     * Tablebase, or Tablebase.NOT_FOUND.
+     */
+    public int probeTablebase(){
+        return Objects.isNull(tablebase) ? Tablebase.NOT_FOUND : tablebase.probe(bitBoard);
+    }
+
+    /**
+     * Best move according to the endgame tables, or Moves.NONE.
+     */
+    public int getTablebaseMove(){
+        return Objects.isNull(tablebase) ? Moves.NONE : tablebase.bestMove(bitBoard);
+    }
+
+    /**
+     * Fills moves with the legal moves of color and returns their count.
+     */
+    public int generateMoves(Color color, int[] moves){
+        return MoveGenerator.generate(bitBoard, BitBoard.colorIndex(color), moves);
+    }
+
+    public boolean movePiece(Move move, Color currentPlayer){
+
+        if(bitBoard.getSideToMove() != BitBoard.colorIndex(currentPlayer)){
             return false;
         }
 
-        if(!piece.canMove(move.getToRow(), move.getToCol(), board)){
+        int count = MoveGenerator.generate(bitBoard, bitBoard.getSideToMove(), legalMoves);
+        int legalMove = Moves.fromMove(move, legalMoves, count);
+
+        if(legalMove == Moves.NONE){
             return false;
         }
 
-        board[move.getFromRow()][move.getFromCol()] = null;
-
-        piece.move(move.getToRow(), move.getToCol());
+        makeMove(legalMove);
 
         return true;
     }
 
-    public boolean isCheckMate(Color playerColor){
+    /**
+     * Plays a legal encoded move on both the Piece[][] grid and the bitboards.
+     * Returns the captured piece, or null.
+     */
+    public Piece makeMove(int move){
+        if(playedCount == playedMoves.length){
+            int capacity = playedCount * 2;
+            playedMoves = Arrays.copyOf(playedMoves, capacity);
+            movedPieces = Arrays.copyOf(movedPieces, capacity);
+            capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+        }
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int captureRow = Moves.flag(move) == Moves.EN_PASSANT ? BitBoard.row(from) : BitBoard.row(to);
+
+        Piece captured = board[captureRow][BitBoard.col(to)];
+        playedMoves[playedCount] = move;
+        movedPieces[playedCount] = board[BitBoard.row(from)][BitBoard.col(from)];
+        capturedPieces[playedCount] = captured;
+        playedCount++;
+
+        movePieceObjects(move);
+        bitBoard.makeMove(move);
+        attackMap.push();
+        attackMap.update(bitBoard);
 
-        return false;
+        return captured;
     }
 
-    public boolean isStalemate(Color playerColor){
+    public void unmakeMove(){
+        if(playedCount == 0){
+            throw new IllegalStateException("No move to unmake");
+        }
+        playedCount--;
+
+        int move = playedMoves[playedCount];
+        int fromRow = BitBoard.row(Moves.from(move));
+        int fromCol = BitBoard.col(Moves.from(move));
+        int toRow = BitBoard.row(Moves.to(move));
+        int toCol = BitBoard.col(Moves.to(move));
+        int flag = Moves.flag(move);
 
-        return false;
+        Piece moved = movedPieces[playedCount];
+        board[toRow][toCol] = null;
+        board[fromRow][fromCol] = moved;
+        moved.move(fromRow, fromCol);
+
+        Piece captured = capturedPieces[playedCount];
+        if(Objects.nonNull(captured)){
+            board[captured.getRow()][captured.getCol()] = captured;
+        }
+
+        if(flag == Moves.KING_CASTLE){
+            relocate(toRow, toCol - 1, toRow, COLS - 1);
+        } else if(flag == Moves.QUEEN_CASTLE){
+            relocate(toRow, toCol + 1, toRow, 0);
+        }
+
+        movedPieces[playedCount] = null;
+        capturedPieces[playedCount] = null;
+        bitBoard.unmakeMove();
+        attackMap.pop();
+    }
+
+    public int getLastMove(){
+        return playedCount == 0 ? Moves.NONE : playedMoves[playedCount - 1];
+    }
+
+    public Piece getLastCapturedPiece(){
+        return playedCount == 0 ? null : capturedPieces[playedCount - 1];
+    }
+
+    private void movePieceObjects(int move){
+        int fromRow = BitBoard.row(Moves.from(move));
+        int fromCol = BitBoard.col(Moves.from(move));
+        int toRow = BitBoard.row(Moves.to(move));
+        int toCol = BitBoard.col(Moves.to(move));
+        int flag = Moves.flag(move);
+
+        Piece piece = board[fromRow][fromCol];
+
+        if(flag == Moves.EN_PASSANT){
+            board[fromRow][toCol] = null;
+        } else if(flag == Moves.KING_CASTLE){
+            relocate(toRow, COLS - 1, toRow, toCol - 1);
+        } else if(flag == Moves.QUEEN_CASTLE){
+            relocate(toRow, 0, toRow, toCol + 1);
+        }
+
+        relocate(fromRow, fromCol, toRow, toCol);
+
+        if(Moves.isPromotion(move)){
+            int code = BitBoard.piece(BitBoard.colorIndex(piece.getColor()), Moves.promotionType(move));
+            board[toRow][toCol] = createPiece(Moves.promotionType(move), code, toRow, toCol);
+        }
+    }
+
+    private void relocate(int fromRow, int fromCol, int toRow, int toCol){
+        Piece piece = board[fromRow][fromCol];
+        board[fromRow][fromCol] = null;
+        board[toRow][toCol] = piece;
+        piece.move(toRow, toCol);
+    }
+
+    private Piece createPiece(int type, int code, int row, int col){
+        Color color = BitBoard.colorOf(code) == BitBoard.WHITE ? Color.WHITE : Color.BLACK;
+        switch (type){
+            case BitBoard.PAWN:
+                return new Pawn(color, row, col);
+            case BitBoard.KNIGHT:
+                return new Knight(color, row, col);
+            case BitBoard.BISHOP:
+                return new Bishop(color, row, col);
+            case BitBoard.ROOK:
+                return new Rook(color, row, col);
+            case BitBoard.KING:
+                return new King(color, row, col);
+            default:
+                return new Queen(color, row, col);
+        }
+    }
+
+    public boolean isInCheck(Color playerColor){
+        return attackMap.isInCheck(BitBoard.colorIndex(playerColor));
+    }
+
+    public boolean isCheckMate(Color playerColor){
+        int color = BitBoard.colorIndex(playerColor);
+        return attackMap.isInCheck(color) && !attackMap.hasLegalMove(bitBoard, color);
+    }
+
+    public boolean isStalemate(Color playerColor){
+        int color = BitBoard.colorIndex(playerColor);
+        return !attackMap.isInCheck(color) && !attackMap.hasLegalMove(bitBoard, color);
     }
 }
@@ -0,0 +1,217 @@
+import dtos.Move;
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
+import engine.Perft;
+import enums.Color;
+import enums.PieceType;
+import pieces.Piece;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Microbenchmarks for the move validation hot path: Piece.canMove per piece type,
+ * Board.movePiece, move generation, perft and ChessGame.makeMove end to end.
+ *
+ * Each benchmark is warmed up, then timed over several iterations; the report shows
+ * time and heap allocation per operation. Allocation is read from the JVM's per-thread
+ * allocation counter, so a hot path that starts allocating shows up as bytes/op > 0.
+ *
+ * Usage: ChessBenchmark [nameFilter]
+ */
+public class ChessBenchmark {
+
+    private static final String MIDDLEGAME = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // 1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O
+    private static final int[][] RUY_LOPEZ = {
+            {6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 3, 1}, {1, 0, 2, 0},
+            {3, 1, 4, 0}, {0, 6, 2, 5}, {7, 4, 7, 6}, {0, 5, 1, 4}, {7, 5, 7, 4}, {1, 1, 3, 1},
+            {4, 0, 5, 1}, {1, 3, 2, 3}, {6, 2, 5, 2}, {0, 4, 0, 6}};
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 500_000_000L;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // results are folded in here so the JIT cannot drop the measured work
+    private static long sink;
+
+    /**
+     * One benchmark invocation; returns how many operations it performed.
+     */
+    private interface Benchmark {
+        long run();
+    }
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        List<String> names = new ArrayList<>();
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        Piece[][] grid = pieceGrid(MIDDLEGAME);
+        for (PieceType type : PieceType.values()) {
+            names.add("canMove." + type);
+            benchmarks.add(canMove(grid, type));
+        }
+        names.add("Board.movePiece");
+        benchmarks.add(boardMovePiece());
+        names.add("MoveGenerator.generate");
+        benchmarks.add(generate());
+        names.add("Perft.depth3");
+        benchmarks.add(perft());
+        names.add("ChessGame.makeMove");
+        benchmarks.add(gameMakeMove());
+
+        System.out.printf("%-24s %12s %14s %10s%n", "benchmark", "ns/op", "ops/s", "bytes/op");
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).contains(filter)) {
+                measure(names.get(i), benchmarks.get(i));
+            }
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void measure(String name, Benchmark benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runFor(benchmark, ITERATION_NANOS);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long operations = 0;
+        long start = System.nanoTime();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operations += runFor(benchmark, ITERATION_NANOS);
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-24s %12.1f %,14.0f %10.1f%n", name,
+                (double) elapsed / operations, operations * 1e9 / elapsed, (double) allocated / operations);
+    }
+
+    private static long runFor(Benchmark benchmark, long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long operations = 0;
+        do {
+            operations += benchmark.run();
+        } while (System.nanoTime() < deadline);
+        return operations;
+    }
+
+    // every destination square for every piece of the type, both colors
+    private static Benchmark canMove(Piece[][] grid, PieceType type) {
+        List<Piece> selected = new ArrayList<>();
+        for (Piece[] row : grid) {
+            for (Piece piece : row) {
+                if (piece != null && piece.getType() == type) {
+                    selected.add(piece);
+                }
+            }
+        }
+        Piece[] pieces = selected.toArray(new Piece[0]);
+
+        return () -> {
+            long legal = 0;
+            for (Piece piece : pieces) {
+                for (int row = 0; row < 8; row++) {
+                    for (int col = 0; col < 8; col++) {
+                        if (piece.canMove(row, col, grid)) {
+                            legal++;
+                        }
+                    }
+                }
+            }
+            sink += legal;
+            return pieces.length * 64L;
+        };
+    }
+
+    // validates and plays every legal move of the position, taking each one back
+    private static Benchmark boardMovePiece() {
+        Board board = new Board();
+        board.loadFen(MIDDLEGAME);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int count = board.generateMoves(Color.WHITE, legal);
+        Move[] moves = new Move[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = Moves.toMove(legal[i]);
+        }
+
+        return () -> {
+            for (Move move : moves) {
+                if (board.movePiece(move, Color.WHITE)) {
+                    board.unmakeMove();
+                }
+            }
+            return moves.length;
+        };
+    }
+
+    private static Benchmark generate() {
+        BitBoard[] positions = new BitBoard[3];
+        String[] fens = {Fen.START_POSITION, MIDDLEGAME, KIWIPETE};
+        for (int i = 0; i < fens.length; i++) {
+            positions[i] = new BitBoard();
+            Fen.load(positions[i], fens[i]);
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+        return () -> {
+            for (BitBoard position : positions) {
+                sink += MoveGenerator.generate(position, position.getSideToMove(), moves);
+            }
+            return positions.length;
+        };
+    }
+
+    // one operation per leaf node
+    private static Benchmark perft() {
+        BitBoard position = new BitBoard();
+        Fen.load(position, KIWIPETE);
+        Perft perft = new Perft();
+
+        return () -> perft.perft(position, 3);
+    }
+
+    // a fresh game replaying a 16 ply opening; one operation per move
+    private static Benchmark gameMakeMove() {
+        Move[] moves = new Move[RUY_LOPEZ.length];
+        for (int i = 0; i < moves.length; i++) {
+            int[] m = RUY_LOPEZ[i];
+            moves[i] = new Move(m[0], m[1], m[2], m[3]);
+        }
+
+        return () -> {
+            ChessGame game = new ChessGame();
+            game.startGame();
+            for (Move move : moves) {
+                if (game.makeMove(move)) {
+                    throw new IllegalStateException("Opening line ended the game");
+                }
+            }
+            sink += game.getMoveCount();
+            return moves.length;
+        };
+    }
+
+    private static Piece[][] pieceGrid(String fen) {
+        Board board = new Board();
+        board.loadFen(fen);
+        Piece[][] grid = new Piece[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                grid[row][col] = board.getPiece(row, col);
+            }
+        }
+        return grid;
+    }
+}
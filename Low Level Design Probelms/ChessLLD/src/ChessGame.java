@@ -1,9 +1,20 @@
+import book.OpeningBook;
 import dtos.Move;
+import engine.BitBoard;
+import engine.Fen;
+import engine.Moves;
+import engine.ParallelSearch;
+import engine.SearchResult;
 import enums.Color;
 import enums.GameState;
 import pieces.Piece;
+import tablebase.Tablebase;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -14,12 +25,46 @@ public class ChessGame {
     private List<Piece> blackCapturedPieces;
     private GameState gameState;
     private Color currentTurn;
+    // Zobrist key of every position reached, for repetition detection
+    private long[] positionHistory;
+    private int historySize;
+    // packed 16-bit moves (see engine.Moves), two bytes per ply
+    private short[] moveRecord;
+    private int recordSize;
+    // position the record is replayed from; null for the standard start
+    private String startFen;
+    private ParallelSearch engine;
+    private int engineThreads = 1;
+    private OpeningBook openingBook;
 
     public ChessGame(){
         board = new Board();
         this.whiteCapturedPieces = new ArrayList<>();
         this.blackCapturedPieces = new ArrayList<>();
         this.currentTurn = Color.WHITE;
+        this.positionHistory = new long[256];
+        this.moveRecord = new short[256];
+        recordPosition();
+    }
+
+    /**
+     * Starts a game from an arbitrary position.
+     */
+    public ChessGame(String fen){
+        this();
+        board.loadFen(fen);
+        this.startFen = fen;
+        this.currentTurn = board.getBitBoard().getSideToMove() == BitBoard.WHITE ? Color.WHITE : Color.BLACK;
+        this.historySize = 0;
+        recordPosition();
+    }
+
+    public List<Piece> getWhiteCapturedPieces() {
+        return whiteCapturedPieces;
+    }
+
+    public List<Piece> getBlackCapturedPieces() {
+        return blackCapturedPieces;
     }
 
     public GameState getGameState() {
@@ -42,6 +87,11 @@ public class ChessGame {
             return false;
         }
 
+        if(!isOnBoard(move.getFromRow(), move.getFromCol()) || !isOnBoard(move.getToRow(), move.getToCol())){
+            System.out.println("Move is off the board");
+            return false;
+        }
+
         Piece movingPiece = board.getPiece(move.getFromRow(), move.getFromCol());
 
         if(Objects.isNull(movingPiece)){
@@ -49,7 +99,32 @@ public class ChessGame {
             return false;
         }
 
-        board.movePiece(move, currentTurn);
+        if(!board.movePiece(move, currentTurn)){
+            System.out.println("Invalid move");
+            return false;
+        }
+
+        return afterMove();
+    }
+
+    private static boolean isOnBoard(int row, int col){
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+
+    // bookkeeping after a legal move; returns true when the game has ended
+    private boolean afterMove(){
+        recordMove(board.getLastMove());
+
+        Piece captured = board.getLastCapturedPiece();
+        if(Objects.nonNull(captured)){
+            if(Color.WHITE.equals(captured.getColor())){
+                whiteCapturedPieces.add(captured);
+            } else {
+                blackCapturedPieces.add(captured);
+            }
+        }
+
+        recordPosition();
 
         if (board.isCheckMate(oppositeColor())) {
             stopGame(currentTurn + " wins by checkmate!");
@@ -57,6 +132,9 @@ public class ChessGame {
         } else if (board.isStalemate(oppositeColor())) {
             stopGame("Stalemate.");
             return true;
+        } else if (repetitionCount() >= 3) {
+            stopGame("Draw by threefold repetition.");
+            return true;
         }
 
         this.currentTurn = oppositeColor();
@@ -64,6 +142,167 @@ public class ChessGame {
         return false;
     }
 
+    private void recordMove(int move){
+        if(recordSize == moveRecord.length){
+            moveRecord = Arrays.copyOf(moveRecord, recordSize * 2);
+        }
+        moveRecord[recordSize++] = Moves.pack(move);
+    }
+
+    public int getMoveCount(){
+        return recordSize;
+    }
+
+    public Color getCurrentTurn() {
+        return currentTurn;
+    }
+
+    public short[] getMoveRecord(){
+        return Arrays.copyOf(moveRecord, recordSize);
+    }
+
+    // a has-FEN flag and the start FEN if set, an int count, then one packed short per ply
+    public void writeMoveRecord(DataOutput out) throws IOException {
+        out.writeBoolean(startFen != null);
+        if(startFen != null){
+            out.writeUTF(startFen);
+        }
+        out.writeInt(recordSize);
+        for(int i = 0; i < recordSize; i++){
+            out.writeShort(moveRecord[i]);
+        }
+    }
+
+    /**
+     * Replays a record written by writeMoveRecord into a new game. Moves are played
+     * as they are read, so a corrupt count fails at the end of the stream rather
+     * than allocating for it.
+     */
+    public static ChessGame readMoveRecord(DataInput in) throws IOException {
+        String fen = in.readBoolean() ? in.readUTF() : Fen.START_POSITION;
+        int size = in.readInt();
+        if(size < 0){
+            throw new IOException("Invalid move record size " + size);
+        }
+
+        try {
+            ChessGame game = new ChessGame(fen);
+            game.startGame();
+            for(int i = 0; i < size; i++){
+                game.replayMove(in.readShort(), i);
+            }
+            return game;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds a game by playing count packed moves from the given position.
+     */
+    public static ChessGame replay(String fen, short[] moves, int count){
+        ChessGame game = new ChessGame(fen);
+        game.startGame();
+
+        for(int i = 0; i < count; i++){
+            game.replayMove(moves[i], i);
+        }
+        return game;
+    }
+
+    private void replayMove(short packed, int ply){
+        Move move = Moves.toMove(Moves.unpack(packed));
+        if(!GameState.IN_PROGRESS.equals(gameState) || !board.movePiece(move, currentTurn)){
+            throw new IllegalArgumentException("Illegal move at ply " + ply);
+        }
+        afterMove();
+    }
+
+    public String toFen(){
+        return board.toFen();
+    }
+
+    private void recordPosition(){
+        if(historySize == positionHistory.length){
+            positionHistory = Arrays.copyOf(positionHistory, historySize * 2);
+        }
+        positionHistory[historySize++] = board.getHash();
+    }
+
+    /**
+     * Number of times the current position has occurred. Only positions since the
+     * last capture or pawn move can repeat, and only with the same side to move.
+     */
+    public int repetitionCount(){
+        long current = positionHistory[historySize - 1];
+        int earliest = Math.max(0, historySize - 1 - board.getHalfMoveClock());
+        int count = 1;
+
+        for(int i = historySize - 3; i >= earliest; i -= 2){
+            if(positionHistory[i] == current){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Engine mode: plays from the opening book or the endgame tables if they cover
+     * the position, otherwise searches it for currentTurn within the time budget.
+     * Returns null when the side to move has no legal move.
+     */
+    public Move findBestMove(long timeMillis){
+        if(Objects.nonNull(openingBook)){
+            int bookMove = openingBook.findMove(board.getBitBoard());
+            if(bookMove != Moves.NONE){
+                System.out.println("Engine: book move " + Moves.toString(bookMove));
+                return Moves.toMove(bookMove);
+            }
+        }
+
+        int tablebaseMove = board.getTablebaseMove();
+        if(tablebaseMove != Moves.NONE){
+            int result = board.probeTablebase();
+            System.out.println("Engine: tablebase move " + Moves.toString(tablebaseMove)
+                    + " wdl " + Tablebase.wdl(result) + " dtm " + Tablebase.dtm(result));
+            return Moves.toMove(tablebaseMove);
+        }
+
+        if(Objects.isNull(engine)){
+            engine = new ParallelSearch(engineThreads, 64);
+        }
+
+        SearchResult result = engine.search(board.getBitBoard(), timeMillis);
+        System.out.println("Engine: " + result);
+
+        int best = result.getBestMove();
+        return best == Moves.NONE ? null : Moves.toMove(best);
+    }
+
+    /**
+     * Book consulted by findBestMove before searching; null disables it.
+     */
+    public void setOpeningBook(OpeningBook openingBook){
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Endgame tables consulted by findBestMove before searching; null disables them.
+     */
+    public void setTablebase(Tablebase tablebase){
+        board.setTablebase(tablebase);
+    }
+
+    /**
+     * Number of Lazy SMP search threads used by findBestMove.
+     */
+    public void setEngineThreads(int threads){
+        if(Objects.nonNull(engine)){
+            engine.shutdown();
+            engine = null;
+        }
+        this.engineThreads = threads;
+    }
 
     public Color oppositeColor(){
         return this.currentTurn.equals(Color.WHITE) ? Color.BLACK : Color.WHITE;
@@ -15,7 +15,7 @@ public class ChessGameDemo {
 
         while (chessGame.getGameState().equals(GameState.IN_PROGRESS)) {
 
-            System.out.println("Enter move (fromRow fromCol toRow toCol) or 'exit': ");
+            System.out.println("Enter move (fromRow fromCol toRow toCol), 'engine [millis]' or 'exit': ");
 
             String input = sc.nextLine();
 
@@ -26,6 +26,16 @@ public class ChessGameDemo {
 
             String[] parts = input.trim().split(" ");
 
+            if(parts[0].equalsIgnoreCase("engine")){
+                long timeMillis = parts.length > 1 ? Long.parseLong(parts[1]) : 1000;
+                Move move = chessGame.findBestMove(timeMillis);
+
+                if(move != null && chessGame.makeMove(move)){
+                    break;
+                }
+                continue;
+            }
+
             if(parts.length == 4){
 
                 int fromRow = Integer.parseInt(parts[0]);
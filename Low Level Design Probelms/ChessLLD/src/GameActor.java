@@ -0,0 +1,99 @@
+import dtos.Move;
+import enums.GameState;
+import enums.MoveStatus;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Actor owning a single ChessGame. Moves arrive through a bounded mailbox and are
+ * applied one at a time by whichever executor thread drains it, so the game itself
+ * needs no locking and a slow game never holds a thread while its mailbox is empty.
+ */
+public class GameActor {
+
+    // messages handled per turn before yielding the thread to other games
+    private static final int BATCH_SIZE = 32;
+
+    private final String gameId;
+    private final ChessGame game;
+    private final BlockingQueue<MoveRequest> mailbox;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public GameActor(String gameId, int mailboxCapacity, Executor executor) {
+        this.gameId = gameId;
+        this.game = new ChessGame();
+        this.mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+        this.executor = executor;
+        game.startGame();
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public CompletableFuture<MoveStatus> submit(Move move) {
+        MoveRequest request = new MoveRequest(move);
+
+        if (!mailbox.offer(request)) {
+            request.reply.complete(MoveStatus.MAILBOX_FULL);
+            return request.reply;
+        }
+
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return request.reply;
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                MoveRequest request = mailbox.poll();
+                if (request == null) {
+                    break;
+                }
+                // a failing message is rejected on its own; it must not stop the mailbox
+                try {
+                    request.reply.complete(apply(request.move));
+                } catch (RuntimeException e) {
+                    request.reply.complete(MoveStatus.REJECTED);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+
+        // a message may have arrived after the last poll but before the flag was cleared
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private MoveStatus apply(Move move) {
+        if (!GameState.IN_PROGRESS.equals(game.getGameState())) {
+            return MoveStatus.GAME_OVER;
+        }
+
+        int before = game.getMoveCount();
+        boolean ended = game.makeMove(move);
+
+        if (game.getMoveCount() == before) {
+            return MoveStatus.REJECTED;
+        }
+        return ended ? MoveStatus.GAME_OVER : MoveStatus.ACCEPTED;
+    }
+
+    private static class MoveRequest {
+        private final Move move;
+        private final CompletableFuture<MoveStatus> reply = new CompletableFuture<>();
+
+        private MoveRequest(Move move) {
+            this.move = move;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import dtos.Move;
+import enums.MoveStatus;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts many concurrent games, one GameActor per game.
+ * Games share only the executor; there is no lock across games.
+ *
+ * The executor is pluggable: a fixed pool sized to the cores by default,
+ * or e.g. a virtual-thread-per-task executor on JDKs that have one.
+ */
+public class GameServer {
+
+    private final Map<String, GameActor> games;
+    private final ExecutorService executor;
+    private final int mailboxCapacity;
+
+    public GameServer(int mailboxCapacity) {
+        this(mailboxCapacity, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+    }
+
+    public GameServer(int mailboxCapacity, ExecutorService executor) {
+        this.games = new ConcurrentHashMap<>();
+        this.executor = executor;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    public GameActor createGame(String gameId) {
+        GameActor actor = new GameActor(gameId, mailboxCapacity, executor);
+        if (games.putIfAbsent(gameId, actor) != null) {
+            throw new IllegalArgumentException("Game already exists: " + gameId);
+        }
+        return actor;
+    }
+
+    public CompletableFuture<MoveStatus> submitMove(String gameId, Move move) {
+        GameActor actor = games.get(gameId);
+        if (actor == null) {
+            return CompletableFuture.completedFuture(MoveStatus.REJECTED);
+        }
+        return actor.submit(move);
+    }
+
+    public void closeGame(String gameId) {
+        games.remove(gameId);
+    }
+
+    public int getGameCount() {
+        return games.size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
+import enums.MoveStatus;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for GameServer: plays random legal games concurrently and reports
+ * moves/sec and move latency percentiles.
+ *
+ * Usage: GameServerLoadTest [games] [pliesPerGame]
+ */
+public class GameServerLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        GameServer server = new GameServer(16);
+        ExecutorService clients = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        long[] latencies = new long[gameCount * plies];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(gameCount);
+
+        for (int i = 0; i < gameCount; i++) {
+            server.createGame("game-" + i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < gameCount; i++) {
+            Client client = new Client(server, "game-" + i, plies, i, latencies, recorded, rejected, finished, clients);
+            clients.execute(client::playNext);
+        }
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+
+        server.shutdown();
+        clients.shutdown();
+
+        int moves = recorded.get();
+        long[] sorted = Arrays.copyOf(latencies, moves);
+        Arrays.sort(sorted);
+
+        System.out.printf("games %d, moves %d, rejected %d%n", gameCount, moves, rejected.get());
+        System.out.printf("throughput %,.0f moves/sec%n", moves * 1e9 / elapsed);
+        System.out.printf("latency p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3, sorted[moves - 1] / 1e3);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * Keeps its own copy of the position, like a real client, and sends one move at a time.
+     */
+    private static class Client {
+        private final GameServer server;
+        private final String gameId;
+        private final SplittableRandom random;
+        private final BitBoard board = new BitBoard();
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private final long[] latencies;
+        private final AtomicInteger recorded;
+        private final AtomicInteger rejected;
+        private final CountDownLatch finished;
+        private final ExecutorService executor;
+        private int pliesLeft;
+
+        private Client(GameServer server, String gameId, int plies, long seed, long[] latencies,
+                       AtomicInteger recorded, AtomicInteger rejected, CountDownLatch finished,
+                       ExecutorService executor) {
+            this.server = server;
+            this.gameId = gameId;
+            this.pliesLeft = plies;
+            this.random = new SplittableRandom(seed);
+            this.latencies = latencies;
+            this.recorded = recorded;
+            this.rejected = rejected;
+            this.finished = finished;
+            this.executor = executor;
+            Fen.load(board, Fen.START_POSITION);
+        }
+
+        private void playNext() {
+            int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+            if (pliesLeft-- == 0 || count == 0) {
+                finished.countDown();
+                return;
+            }
+
+            int move = moves[random.nextInt(count)];
+            board.makeMove(move);
+
+            long sent = System.nanoTime();
+            server.submitMove(gameId, Moves.toMove(move)).thenAcceptAsync(status -> {
+                latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+
+                if (status == MoveStatus.ACCEPTED) {
+                    playNext();
+                } else {
+                    if (status != MoveStatus.GAME_OVER) {
+                        rejected.incrementAndGet();
+                    }
+                    finished.countDown();
+                }
+            }, executor);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Round-trips random games through writeMoveRecord and readMoveRecord, from the
+ * standard start and from FEN positions, and checks that the replayed game has the
+ * same moves and final position. Also checks that a record whose count is far
+ * larger than its data fails with an IOException. Exits with status 1 on a failure.
+ *
+ * Usage: MoveRecordCheck
+ */
+public class MoveRecordCheck {
+
+    private static final String[] START_FENS = {
+            null,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 2",
+    };
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        for (String fen : START_FENS) {
+            for (int i = 0; i < 20; i++) {
+                check(fen, random);
+            }
+        }
+        checkTruncated();
+
+        if (failures > 0) {
+            System.out.println(failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("all checks passed");
+    }
+
+    private static void check(String fen, SplittableRandom random) throws IOException {
+        ChessGame game = fen == null ? new ChessGame() : new ChessGame(fen);
+        game.startGame();
+        playRandomMoves(game, random, 60);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.writeMoveRecord(new DataOutputStream(bytes));
+        ChessGame copy = ChessGame.readMoveRecord(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        boolean passed = Arrays.equals(game.getMoveRecord(), copy.getMoveRecord())
+                && game.toFen().equals(copy.toFen());
+        if (!passed) {
+            System.out.printf("FAILED %s after %d plies: %s vs %s%n",
+                    fen == null ? "start position" : fen, game.getMoveCount(), game.toFen(), copy.toFen());
+            failures++;
+        }
+    }
+
+    private static void checkTruncated() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeBoolean(false);
+        out.writeInt(Integer.MAX_VALUE - 8);
+        out.writeShort(Moves.pack(Moves.encode(52, 36, Moves.DOUBLE_PUSH)));
+
+        try {
+            ChessGame.readMoveRecord(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            System.out.println("FAILED truncated record was accepted");
+            failures++;
+        } catch (EOFException e) {
+            // expected: the stream ends long before the declared count
+        }
+    }
+
+    // plays up to plies random legal moves, stopping early if the game ends
+    private static void playRandomMoves(ChessGame game, SplittableRandom random, int plies) {
+        BitBoard board = new BitBoard();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < plies; ply++) {
+            Fen.load(board, game.toFen());
+            int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+            if (count == 0 || game.makeMove(Moves.toMove(moves[random.nextInt(count)]))) {
+                return;
+            }
+        }
+    }
+}
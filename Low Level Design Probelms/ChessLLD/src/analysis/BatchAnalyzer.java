@@ -0,0 +1,316 @@
+package analysis;
+
+import engine.BitBoard;
+import engine.Fen;
+import engine.Moves;
+import engine.Search;
+import engine.SearchResult;
+import engine.TranspositionTable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scores a file of FEN positions (one per line) on a fixed pool of workers and
+ * writes one CSV line per position, in input order:
+ *
+ *     fen,bestmove,score,depth,nodes,error
+ *
+ * Each worker reuses its own BitBoard, Search and transposition table. A bounded
+ * input queue plus a cap on positions in flight keeps the reader from running
+ * ahead of the workers, so memory stays flat however large the input is.
+ *
+ * Every checkpointInterval positions the output is flushed and the number of
+ * positions and bytes written is saved next to it. A rerun with the same output
+ * path truncates any partial tail and resumes after the last checkpoint.
+ *
+ * Usage: BatchAnalyzer input.fen output.csv [workers] [maxDepth] [millisPerPosition]
+ */
+public class BatchAnalyzer {
+
+    private static final String HEADER = "fen,bestmove,score,depth,nodes,error\n";
+    private static final int TABLE_MB = 16;
+
+    private final int workers;
+    private final int maxDepth;
+    private final long timeMillis;
+    private final int queueCapacity;
+    private final int checkpointInterval;
+
+    private final AtomicLong completed = new AtomicLong();
+    private volatile BlockingQueue<Task> queue;
+    private volatile long startNanos;
+
+    public BatchAnalyzer(int workers, int maxDepth, long timeMillis) {
+        this(workers, maxDepth, timeMillis, workers * 64, 1000);
+    }
+
+    public BatchAnalyzer(int workers, int maxDepth, long timeMillis, int queueCapacity, int checkpointInterval) {
+        this.workers = workers;
+        this.maxDepth = maxDepth;
+        this.timeMillis = timeMillis;
+        this.queueCapacity = queueCapacity;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Analyses every position of input not already covered by the checkpoint of
+     * output. Returns the number of positions analysed by this call.
+     */
+    public long analyze(Path input, Path output) throws IOException, InterruptedException {
+        Path checkpoint = checkpointPath(output);
+        long[] resumed = readCheckpoint(checkpoint);
+        long skip = resumed[0];
+
+        // positions handed out but not yet written; bounded so the reorder buffer cannot overflow
+        int inFlight = queueCapacity + workers;
+        Semaphore permits = new Semaphore(inFlight);
+        Task[] finished = new Task[inFlight];
+        BlockingQueue<Task> tasks = new ArrayBlockingQueue<>(queueCapacity);
+        Producer producer = new Producer(input, skip, tasks, permits, finished);
+
+        this.queue = tasks;
+        this.startNanos = System.nanoTime();
+        completed.set(0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers + 1);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // drop whatever was written after the last checkpoint
+            channel.truncate(resumed[1]);
+            channel.position(resumed[1]);
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            long bytes = resumed[1];
+            if (bytes == 0) {
+                out.write(HEADER.getBytes(StandardCharsets.US_ASCII));
+                bytes = HEADER.length();
+            }
+
+            pool.execute(producer);
+            for (int i = 0; i < workers; i++) {
+                pool.execute(new Worker(tasks, finished));
+            }
+
+            long next = skip;
+            while (true) {
+                int slot = (int) (next % inFlight);
+                Task task;
+                synchronized (finished) {
+                    while ((task = finished[slot]) == null && !producer.isDoneAt(next)) {
+                        finished.wait();
+                    }
+                    finished[slot] = null;
+                }
+                if (task == null) {
+                    break;
+                }
+                permits.release();
+
+                byte[] line = task.result.getBytes(StandardCharsets.UTF_8);
+                out.write(line);
+                bytes += line.length;
+                next++;
+
+                if (completed.incrementAndGet() % checkpointInterval == 0) {
+                    out.flush();
+                    channel.force(false);
+                    writeCheckpoint(checkpoint, next, bytes);
+                }
+            }
+
+            out.flush();
+            channel.force(false);
+            if (producer.failure != null) {
+                writeCheckpoint(checkpoint, next, bytes);
+                throw producer.failure;
+            }
+            Files.deleteIfExists(checkpoint);
+        } finally {
+            // workers left waiting on an empty queue are interrupted
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return completed.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public int getQueueDepth() {
+        BlockingQueue<Task> current = queue;
+        return current == null ? 0 : current.size();
+    }
+
+    public double getPositionsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : completed.get() / seconds;
+    }
+
+    static Path checkpointPath(Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    // {positions, bytes} written when the checkpoint was taken
+    private static long[] readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return new long[]{0, 0};
+        }
+        String[] fields = Files.readString(checkpoint, StandardCharsets.US_ASCII).trim().split(" ");
+        return new long[]{Long.parseLong(fields[0]), Long.parseLong(fields[1])};
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long positions, long bytes) throws IOException {
+        // written aside and renamed, so a crash never leaves a half-written checkpoint
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temp, positions + " " + bytes + "\n", StandardCharsets.US_ASCII);
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Task {
+        final long index;
+        final String fen;
+        String result;
+
+        Task(long index, String fen) {
+            this.index = index;
+            this.fen = fen;
+        }
+    }
+
+    // reads input lines, skipping those already analysed; blocks while too many are in flight
+    private static final class Producer implements Runnable {
+        private final Path input;
+        private final long skip;
+        private final BlockingQueue<Task> tasks;
+        private final Semaphore permits;
+        private final Task[] finished;
+        private volatile long total = Long.MAX_VALUE;
+        private volatile IOException failure;
+
+        Producer(Path input, long skip, BlockingQueue<Task> tasks, Semaphore permits, Task[] finished) {
+            this.input = input;
+            this.skip = skip;
+            this.tasks = tasks;
+            this.permits = permits;
+            this.finished = finished;
+        }
+
+        boolean isDoneAt(long index) {
+            return index >= total;
+        }
+
+        @Override
+        public void run() {
+            long index = 0;
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String fen = line.trim();
+                    if (fen.isEmpty()) {
+                        continue;
+                    }
+                    if (index >= skip) {
+                        permits.acquire();
+                        tasks.put(new Task(index, fen));
+                    }
+                    index++;
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (finished) {
+                    total = Math.max(index, skip);
+                    finished.notifyAll();
+                }
+            }
+        }
+    }
+
+    // analyses positions with its own board and search until interrupted
+    private final class Worker implements Runnable {
+        private final BlockingQueue<Task> tasks;
+        private final Task[] finished;
+        private final BitBoard board = new BitBoard();
+        private final Search search = new Search(new TranspositionTable(TABLE_MB));
+        private final StringBuilder line = new StringBuilder(128);
+
+        Worker(BlockingQueue<Task> tasks, Task[] finished) {
+            this.tasks = tasks;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Task task = tasks.take();
+                    task.result = analyze(task.fen);
+                    synchronized (finished) {
+                        finished[(int) (task.index % finished.length)] = task;
+                        finished.notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // shut down by analyze()
+            }
+        }
+
+        private String analyze(String fen) {
+            line.setLength(0);
+            line.append(fen).append(',');
+            try {
+                Fen.load(board, fen);
+                SearchResult result = search.search(board, timeMillis, maxDepth);
+                line.append(result.getBestMove() == Moves.NONE ? "none" : Moves.toString(result.getBestMove()))
+                        .append(',').append(result.getScore())
+                        .append(',').append(result.getDepth())
+                        .append(',').append(result.getNodes())
+                        .append(',');
+            } catch (RuntimeException e) {
+                line.append(",,,,").append(String.valueOf(e.getMessage()).replace(',', ';'));
+            }
+            return line.append('\n').toString();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int maxDepth = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        long millis = args.length > 4 ? Long.parseLong(args[4]) : 1000;
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(workers, maxDepth, millis);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> System.out.printf("%d positions, %.1f positions/sec, queue depth %d%n",
+                analyzer.getCompleted(), analyzer.getPositionsPerSecond(), analyzer.getQueueDepth()), 5, 5, TimeUnit.SECONDS);
+
+        long analysed = analyzer.analyze(input, output);
+        progress.shutdown();
+        System.out.printf("Done: %d positions, %.1f positions/sec on %d workers%n",
+                analysed, analyzer.getPositionsPerSecond(), workers);
+    }
+}
@@ -0,0 +1,119 @@
+package book;
+
+import engine.BitBoard;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Read-only opening book. The file is a sorted array of 16-byte entries
+ * (key: long, move: short, weight: short, reserved: int), memory-mapped and
+ * binary-searched by Zobrist key, so opening it costs no parsing and several
+ * processes share the same pages through the OS page cache.
+ */
+public class OpeningBook implements Closeable {
+
+    public static final int ENTRY_SIZE = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    private final SplittableRandom random = new SplittableRandom();
+
+    public OpeningBook(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Not an opening book: " + path);
+        }
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.entryCount = (int) (size / ENTRY_SIZE);
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Picks a book move for the position, weighted by how often it was played,
+     * or Moves.NONE when the position is not in the book. Entries that are not
+     * legal here (hash collisions) are ignored.
+     */
+    public synchronized int findMove(BitBoard board) {
+        long key = board.getHash();
+        int first = lowerBound(key);
+        int legalCount = MoveGenerator.generate(board, board.getSideToMove(), legalMoves);
+
+        int totalWeight = 0;
+        for (int i = first; i < entryCount && keyAt(i) == key; i++) {
+            if (isLegal(moveAt(i), legalCount)) {
+                totalWeight += weightAt(i);
+            }
+        }
+        if (totalWeight == 0) {
+            return Moves.NONE;
+        }
+
+        int pick = random.nextInt(totalWeight);
+        for (int i = first; i < entryCount && keyAt(i) == key; i++) {
+            int move = moveAt(i);
+            if (isLegal(move, legalCount)) {
+                pick -= weightAt(i);
+                if (pick < 0) {
+                    return move;
+                }
+            }
+        }
+        return Moves.NONE;
+    }
+
+    // index of the first entry with keyAt(index) >= key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isLegal(int move, int legalCount) {
+        for (int i = 0; i < legalCount; i++) {
+            if (legalMoves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int moveAt(int index) {
+        return entries.getShort(index * ENTRY_SIZE + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int index) {
+        return entries.getShort(index * ENTRY_SIZE + 10) & 0xFFFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
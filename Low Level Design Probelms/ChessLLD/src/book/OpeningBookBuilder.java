@@ -0,0 +1,111 @@
+package book;
+
+import engine.BitBoard;
+import engine.Fen;
+import engine.Moves;
+import notation.PgnGame;
+import notation.PgnReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles an OpeningBook file from a PGN corpus. Every move of the first maxPly
+ * plies of each valid game is counted; wins count double, losses not at all, so
+ * the weight follows results as well as popularity.
+ *
+ * Usage: OpeningBookBuilder games.pgn book.bin [maxPly] [minWeight]
+ */
+public class OpeningBookBuilder {
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    private final int minWeight;
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+    private final BitBoard board = new BitBoard();
+
+    public OpeningBookBuilder(int maxPly, int minWeight) {
+        this.maxPly = maxPly;
+        this.minWeight = minWeight;
+    }
+
+    public void addGame(PgnGame game) {
+        if (!game.isValid() || game.getStartFen() != null) {
+            return;
+        }
+        String result = game.getResult();
+        if (result.equals("*")) {
+            return;
+        }
+
+        Fen.load(board, Fen.START_POSITION);
+        int plies = Math.min(maxPly, game.getMoveCount());
+
+        for (int i = 0; i < plies; i++) {
+            int move = Moves.unpack(game.getMoves()[i]);
+            int weight = weightFor(result, board.getSideToMove());
+            if (weight > 0) {
+                positions.computeIfAbsent(board.getHash(), key -> new HashMap<>(4)).merge(move, weight, Integer::sum);
+            }
+            board.makeMove(move);
+        }
+    }
+
+    private static int weightFor(String result, int side) {
+        if (result.equals("1/2-1/2")) {
+            return 1;
+        }
+        boolean whiteWon = result.equals("1-0");
+        return whiteWon == (side == BitBoard.WHITE) ? 2 : 0;
+    }
+
+    /**
+     * Writes entries sorted by key (signed order, as OpeningBook searches it),
+     * heaviest move first within a key.
+     */
+    public int write(Path path) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compare);
+
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (long key : keys) {
+                List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(positions.get(key).entrySet());
+                moves.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+                for (Map.Entry<Integer, Integer> move : moves) {
+                    if (move.getValue() < minWeight) {
+                        continue;
+                    }
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort(Math.min(move.getValue(), MAX_WEIGHT));
+                    out.writeInt(0);
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path pgn = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        int maxPly = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int minWeight = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPly, minWeight);
+        long games = PgnReader.read(pgn, builder::addGame);
+        int entries = builder.write(output);
+
+        System.out.println("Read " + games + " games, wrote " + entries + " book entries to " + output);
+    }
+}
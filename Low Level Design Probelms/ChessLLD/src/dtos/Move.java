@@ -1,16 +1,24 @@
 package dtos;
 
+import enums.PieceType;
+
 public class Move {
     private int fromRow;
     private int fromCol;
     private int toRow;
     private int toCol;
+    private PieceType promotion;
 
-    public Move(int fromCol, int fromRow, int toCol, int toRow) {
-        this.fromCol = fromCol;
+    public Move(int fromRow, int fromCol, int toRow, int toCol) {
+        this(fromRow, fromCol, toRow, toCol, null);
+    }
+
+    public Move(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
         this.fromRow = fromRow;
-        this.toCol = toCol;
+        this.fromCol = fromCol;
         this.toRow = toRow;
+        this.toCol = toCol;
+        this.promotion = promotion;
     }
 
     public int getFromCol() {
@@ -28,4 +36,9 @@ public class Move {
     public int getToRow() {
         return toRow;
     }
+
+    // piece a pawn promotes to; null means queen
+    public PieceType getPromotion() {
+        return promotion;
+    }
 }
@@ -0,0 +1,202 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * King-safety data for both colors: squares each side attacks, pieces giving
+ * check and pieces pinned to their king, so check, checkmate and stalemate
+ * queries are answered from it directly.
+ *
+ * The map is not updated incrementally: after a move it is rebuilt from the
+ * bitboards, a fixed number of mask operations per piece and no move generation.
+ * The map it replaces is pushed onto a stack first, so taking a move back pops
+ * it in constant time instead of rebuilding.
+ */
+public class AttackMap {
+
+    private final long[] attacked = new long[2];
+    private final long[] checkers = new long[2];
+    private final long[] pinned = new long[2];
+    // maps saved by push, six longs per move
+    private long[] history = new long[6 * 256];
+    private int historySize;
+
+    /**
+     * Saves the current map; the next pop restores it.
+     */
+    public void push() {
+        if (historySize + 6 > history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[historySize++] = attacked[0];
+        history[historySize++] = attacked[1];
+        history[historySize++] = checkers[0];
+        history[historySize++] = checkers[1];
+        history[historySize++] = pinned[0];
+        history[historySize++] = pinned[1];
+    }
+
+    public void pop() {
+        if (historySize == 0) {
+            throw new IllegalStateException("No attack map to restore");
+        }
+        pinned[1] = history[--historySize];
+        pinned[0] = history[--historySize];
+        checkers[1] = history[--historySize];
+        checkers[0] = history[--historySize];
+        attacked[1] = history[--historySize];
+        attacked[0] = history[--historySize];
+    }
+
+    // drops the saved maps, for a board set up from scratch
+    public void clearHistory() {
+        historySize = 0;
+    }
+
+    public void update(BitBoard board) {
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            int enemy = color ^ 1;
+            int king = board.kingSquare(color);
+
+            // the king is removed so squares behind it on a checking line count as attacked
+            long occ = board.occupied() & ~(1L << king);
+            attacked[enemy] = attacksOf(board, enemy, occ);
+            checkers[color] = board.attackersOf(king, enemy, board.occupied());
+            pinned[color] = pinnedPieces(board, color, king);
+        }
+    }
+
+    public long getAttacked(int color) {
+        return attacked[color];
+    }
+
+    public long getCheckers(int color) {
+        return checkers[color];
+    }
+
+    public long getPinned(int color) {
+        return pinned[color];
+    }
+
+    public boolean isInCheck(int color) {
+        return checkers[color] != 0;
+    }
+
+    /**
+     * True if color has at least one legal move. Most positions are decided by the
+     * king having a safe square or by an unpinned piece having any move; only the
+     * remaining candidates are verified with a legality check.
+     */
+    public boolean hasLegalMove(BitBoard board, int color) {
+        long own = board.colorMask(color);
+        long enemy = board.colorMask(color ^ 1);
+        int king = board.kingSquare(color);
+
+        if ((BitBoard.kingAttacks(king) & ~own & ~attacked[color ^ 1]) != 0) {
+            return true;
+        }
+
+        // in double check only the king can move
+        if (Long.bitCount(checkers[color]) > 1) {
+            return false;
+        }
+
+        boolean inCheck = checkers[color] != 0;
+        long pieces = own & ~(1L << king);
+        long occ = board.occupied();
+        int enPassant = board.getEnPassantSquare();
+        // en passant removes two pieces from a rank, so it is never taken on trust
+        long enPassantMask = enPassant == BitBoard.EMPTY ? 0L : 1L << enPassant;
+
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            long targets = pseudoTargets(board, from, color, enemy, occ) & ~own;
+            if (targets == 0) {
+                continue;
+            }
+            if (!inCheck && (pinned[color] & (1L << from)) == 0 && (targets & ~enPassantMask) != 0) {
+                return true;
+            }
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                int flag = to == enPassant && BitBoard.typeOf(board.pieceAt(from)) == BitBoard.PAWN
+                        ? Moves.EN_PASSANT : Moves.QUIET;
+                if (MoveGenerator.isLegal(board, Moves.encode(from, to, flag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long pseudoTargets(BitBoard board, int from, int color, long enemy, long occ) {
+        int type = BitBoard.typeOf(board.pieceAt(from));
+        switch (type) {
+            case BitBoard.PAWN:
+                long captures = BitBoard.pawnAttacks(color, from) & enemy;
+                int enPassant = board.getEnPassantSquare();
+                if (enPassant != BitBoard.EMPTY && color == board.getSideToMove()) {
+                    captures |= BitBoard.pawnAttacks(color, from) & (1L << enPassant);
+                }
+                return board.pawnPushes(color, from) | captures;
+            case BitBoard.KNIGHT:
+                return BitBoard.knightAttacks(from);
+            case BitBoard.BISHOP:
+                return BitBoard.bishopAttacks(from, occ);
+            case BitBoard.ROOK:
+                return BitBoard.rookAttacks(from, occ);
+            default:
+                return BitBoard.queenAttacks(from, occ);
+        }
+    }
+
+    private static long attacksOf(BitBoard board, int color, long occ) {
+        long attacks = BitBoard.kingAttacks(board.kingSquare(color));
+
+        long pawns = board.pieces(color, BitBoard.PAWN);
+        while (pawns != 0) {
+            attacks |= BitBoard.pawnAttacks(color, Long.numberOfTrailingZeros(pawns));
+            pawns &= pawns - 1;
+        }
+        long knights = board.pieces(color, BitBoard.KNIGHT);
+        while (knights != 0) {
+            attacks |= BitBoard.knightAttacks(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+        long diagonals = board.pieces(color, BitBoard.BISHOP) | board.pieces(color, BitBoard.QUEEN);
+        while (diagonals != 0) {
+            attacks |= BitBoard.bishopAttacks(Long.numberOfTrailingZeros(diagonals), occ);
+            diagonals &= diagonals - 1;
+        }
+        long straights = board.pieces(color, BitBoard.ROOK) | board.pieces(color, BitBoard.QUEEN);
+        while (straights != 0) {
+            attacks |= BitBoard.rookAttacks(Long.numberOfTrailingZeros(straights), occ);
+            straights &= straights - 1;
+        }
+        return attacks;
+    }
+
+    private static long pinnedPieces(BitBoard board, int color, int king) {
+        int enemy = color ^ 1;
+        long enemyPieces = board.colorMask(enemy);
+        long queens = board.pieces(enemy, BitBoard.QUEEN);
+
+        // enemy sliders that would hit the king if only enemy pieces blocked
+        long snipers = (BitBoard.rookAttacks(king, enemyPieces) & (board.pieces(enemy, BitBoard.ROOK) | queens))
+                | (BitBoard.bishopAttacks(king, enemyPieces) & (board.pieces(enemy, BitBoard.BISHOP) | queens));
+
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = BitBoard.between(king, sniper) & board.occupied();
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.colorMask(color);
+            }
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,575 @@
+package engine;
+
+import enums.Color;
+import enums.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of the chess board.
+ * One 64-bit mask per (color, piece type), square index = row * 8 + col,
+ * where row 0 is black's back rank (same orientation as Board).
+ */
+public class BitBoard {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+    public static final int EMPTY = -1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    private static final int INITIAL_UNDO_CAPACITY = 1024;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // rays per direction: E, S, SE, SW (increasing index), W, N, NW, NE (decreasing index)
+    private static final int[] RAY_ROW = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RAY_COL = {1, 0, 1, -1, -1, 0, -1, 1};
+    private static final long[][] RAYS = new long[8][64];
+    // squares strictly between two squares on a shared line, 0 if not aligned
+    private static final long[][] BETWEEN = new long[64][64];
+
+    // castling rights that survive a move touching the square
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] &= ~BLACK_QUEEN_SIDE;
+        CASTLING_MASK[7] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[56] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[63] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+
+        int[][] knightJumps = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = row(sq);
+            int col = col(sq);
+
+            for (int[] jump : knightJumps) {
+                KNIGHT_ATTACKS[sq] |= bit(row + jump[0], col + jump[1]);
+            }
+
+            for (int dRow = -1; dRow <= 1; dRow++) {
+                for (int dCol = -1; dCol <= 1; dCol++) {
+                    if (dRow != 0 || dCol != 0) {
+                        KING_ATTACKS[sq] |= bit(row + dRow, col + dCol);
+                    }
+                }
+            }
+
+            // white pawns move towards row 0, black pawns towards row 7
+            PAWN_ATTACKS[WHITE][sq] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+            PAWN_ATTACKS[BLACK][sq] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+
+            for (int dir = 0; dir < 8; dir++) {
+                int r = row + RAY_ROW[dir];
+                int c = col + RAY_COL[dir];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    BETWEEN[sq][square(r, c)] = RAYS[dir][sq];
+                    RAYS[dir][sq] |= 1L << square(r, c);
+                    r += RAY_ROW[dir];
+                    c += RAY_COL[dir];
+                }
+            }
+        }
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    // mailbox kept next to the masks so pieceAt is a single array read
+    private final int[] squares = new int[64];
+
+    private int sideToMove = WHITE;
+    private int castlingRights;
+    private int enPassantSquare = EMPTY;
+    private int halfMoveClock;
+    private int fullMoveNumber = 1;
+    private long hash = Zobrist.castling(0);
+    // evaluation terms kept up to date by putPiece / removePiece (see PieceSquareTables)
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    private long pawnHash;
+
+    // undo stack for makeMove / unmakeMove, grown only when a game outlives it
+    private int[] undoMoves = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoCaptured = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoCastling = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoEnPassant = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoHalfMoveClock = new int[INITIAL_UNDO_CAPACITY];
+    private long[] undoHash = new long[INITIAL_UNDO_CAPACITY];
+    private int undoSize;
+
+    public BitBoard() {
+        Arrays.fill(squares, EMPTY);
+    }
+
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfMoveClock = other.halfMoveClock;
+        fullMoveNumber = other.fullMoveNumber;
+        hash = other.hash;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        pawnHash = other.pawnHash;
+        undoSize = 0;
+    }
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int row(int sq) {
+        return sq >>> 3;
+    }
+
+    public static int col(int sq) {
+        return sq & 7;
+    }
+
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int colorOf(int piece) {
+        return piece / 6;
+    }
+
+    public static int typeOf(int piece) {
+        return piece % 6;
+    }
+
+    public static int colorIndex(Color color) {
+        return Color.WHITE.equals(color) ? WHITE : BLACK;
+    }
+
+    public static int typeIndex(PieceType type) {
+        return type.ordinal();
+    }
+
+    private static long bit(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return 0L;
+        }
+        return 1L << square(row, col);
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        colors[WHITE] = 0L;
+        colors[BLACK] = 0L;
+        occupied = 0L;
+        Arrays.fill(squares, EMPTY);
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = EMPTY;
+        halfMoveClock = 0;
+        fullMoveNumber = 1;
+        hash = Zobrist.castling(0);
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        pawnHash = 0L;
+        undoSize = 0;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Material plus piece-square sum, white minus black, with middlegame weights.
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Remaining non-pawn material in PieceSquareTables.PHASE units; TOTAL_PHASE at the start.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Zobrist key of the pawns alone, for the evaluator's pawn structure cache.
+     */
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            hash ^= Zobrist.side();
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        hash ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        hash ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    public void setHalfMoveClock(int halfMoveClock) {
+        this.halfMoveClock = halfMoveClock;
+    }
+
+    public int getFullMoveNumber() {
+        return fullMoveNumber;
+    }
+
+    public void setFullMoveNumber(int fullMoveNumber) {
+        this.fullMoveNumber = fullMoveNumber;
+    }
+
+    public void putPiece(int piece, int sq) {
+        long mask = 1L << sq;
+        pieces[piece] |= mask;
+        colors[colorOf(piece)] |= mask;
+        occupied |= mask;
+        squares[sq] = piece;
+        hash ^= Zobrist.piece(piece, sq);
+        updateEvaluation(piece, sq, 1);
+    }
+
+    public int removePiece(int sq) {
+        int piece = squares[sq];
+        if (piece == EMPTY) {
+            return EMPTY;
+        }
+        long mask = ~(1L << sq);
+        pieces[piece] &= mask;
+        colors[colorOf(piece)] &= mask;
+        occupied &= mask;
+        squares[sq] = EMPTY;
+        hash ^= Zobrist.piece(piece, sq);
+        updateEvaluation(piece, sq, -1);
+        return piece;
+    }
+
+    private void updateEvaluation(int piece, int sq, int sign) {
+        middlegameScore += sign * PieceSquareTables.middlegame(piece, sq);
+        endgameScore += sign * PieceSquareTables.endgame(piece, sq);
+        phase += sign * PieceSquareTables.PHASE[typeOf(piece)];
+        if (typeOf(piece) == PAWN) {
+            pawnHash ^= Zobrist.piece(piece, sq);
+        }
+    }
+
+    /**
+     * Moves whatever stands on from to to, returning the captured piece code or EMPTY.
+     */
+    public int movePiece(int from, int to) {
+        int captured = removePiece(to);
+        putPiece(removePiece(from), to);
+        return captured;
+    }
+
+    /**
+     * Plays a legal move and records what unmakeMove needs to take it back.
+     * Returns the captured piece code or EMPTY.
+     */
+    public int makeMove(int move) {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+
+        int to = Moves.to(move);
+        int captured = squares[to];
+        if (Moves.flag(move) == Moves.EN_PASSANT) {
+            captured = piece(sideToMove ^ 1, PAWN);
+        }
+
+        undoMoves[undoSize] = move;
+        undoCaptured[undoSize] = captured;
+        undoCastling[undoSize] = castlingRights;
+        undoEnPassant[undoSize] = enPassantSquare;
+        undoHalfMoveClock[undoSize] = halfMoveClock;
+        undoHash[undoSize] = hash;
+        undoSize++;
+
+        applyMove(move);
+        return captured;
+    }
+
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        undoSize--;
+
+        int move = undoMoves[undoSize];
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        int color = sideToMove ^ 1;
+
+        if (Moves.isPromotion(move)) {
+            removePiece(to);
+            putPiece(piece(color, PAWN), to);
+        }
+
+        movePiece(to, from);
+
+        int captured = undoCaptured[undoSize];
+        if (captured != EMPTY) {
+            int captureSquare = flag == Moves.EN_PASSANT ? (color == WHITE ? to + 8 : to - 8) : to;
+            putPiece(captured, captureSquare);
+        }
+
+        if (flag == Moves.KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+
+        // state is restored directly; the saved hash already covers it
+        sideToMove = color;
+        castlingRights = undoCastling[undoSize];
+        enPassantSquare = undoEnPassant[undoSize];
+        halfMoveClock = undoHalfMoveClock[undoSize];
+        if (color == BLACK) {
+            fullMoveNumber--;
+        }
+        hash = undoHash[undoSize];
+    }
+
+    public int getUndoSize() {
+        return undoSize;
+    }
+
+    /**
+     * Hash of the position plies moves ago, for repetition checks.
+     */
+    public long getHash(int plies) {
+        return plies == 0 ? hash : undoHash[undoSize - plies];
+    }
+
+    private void growUndoStack() {
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoCastling = Arrays.copyOf(undoCastling, capacity);
+        undoEnPassant = Arrays.copyOf(undoEnPassant, capacity);
+        undoHalfMoveClock = Arrays.copyOf(undoHalfMoveClock, capacity);
+        undoHash = Arrays.copyOf(undoHash, capacity);
+    }
+
+    /**
+     * Plays an encoded move (see Moves) including castling, en passant and promotion.
+     * The move is assumed to be legal and cannot be taken back; see makeMove.
+     */
+    public void applyMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        int piece = squares[from];
+        int color = colorOf(piece);
+
+        if (flag == Moves.EN_PASSANT) {
+            removePiece(color == WHITE ? to + 8 : to - 8);
+        }
+
+        movePiece(from, to);
+
+        if (Moves.isPromotion(move)) {
+            removePiece(to);
+            putPiece(piece(color, Moves.promotionType(move)), to);
+        } else if (flag == Moves.KING_CASTLE) {
+            movePiece(to + 1, to - 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            movePiece(to - 2, to + 1);
+        }
+
+        setEnPassantSquare(flag == Moves.DOUBLE_PUSH ? (from + to) >>> 1 : EMPTY);
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        halfMoveClock = (typeOf(piece) == PAWN || Moves.isCapture(move)) ? 0 : halfMoveClock + 1;
+        if (color == BLACK) {
+            fullMoveNumber++;
+        }
+        setSideToMove(sideToMove ^ 1);
+    }
+
+    public int pieceAt(int sq) {
+        return squares[sq];
+    }
+
+    public boolean isOccupied(int sq) {
+        return (occupied & (1L << sq)) != 0;
+    }
+
+    public int colorAt(int sq) {
+        int piece = squares[sq];
+        return piece == EMPTY ? EMPTY : colorOf(piece);
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[piece(color, type)];
+    }
+
+    public long colorMask(int color) {
+        return colors[color];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[piece(color, KING)]);
+    }
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    public static long pawnAttacks(int color, int sq) {
+        return PAWN_ATTACKS[color][sq];
+    }
+
+    public static long rookAttacks(int sq, long occ) {
+        return ray(0, sq, occ) | ray(1, sq, occ) | ray(4, sq, occ) | ray(5, sq, occ);
+    }
+
+    public static long bishopAttacks(int sq, long occ) {
+        return ray(2, sq, occ) | ray(3, sq, occ) | ray(6, sq, occ) | ray(7, sq, occ);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long queenAttacks(int sq, long occ) {
+        return rookAttacks(sq, occ) | bishopAttacks(sq, occ);
+    }
+
+    private static long ray(int dir, int sq, long occ) {
+        long attacks = RAYS[dir][sq];
+        long blockers = attacks & occ;
+        if (blockers != 0) {
+            // first blocker is the lowest bit on increasing rays and the highest bit on decreasing ones
+            int blocker = dir < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[dir][blocker];
+        }
+        return attacks;
+    }
+
+    public long attacksFrom(int sq) {
+        int piece = squares[sq];
+        switch (typeOf(piece)) {
+            case PAWN:
+                return PAWN_ATTACKS[colorOf(piece)][sq];
+            case KNIGHT:
+                return KNIGHT_ATTACKS[sq];
+            case BISHOP:
+                return bishopAttacks(sq, occupied);
+            case ROOK:
+                return rookAttacks(sq, occupied);
+            case QUEEN:
+                return queenAttacks(sq, occupied);
+            default:
+                return KING_ATTACKS[sq];
+        }
+    }
+
+    public boolean isSquareAttacked(int sq, int byColor) {
+        return (attackersOf(sq, byColor, occupied) != 0);
+    }
+
+    public long attackersOf(int sq, int byColor, long occ) {
+        long queens = pieces(byColor, QUEEN);
+        return (PAWN_ATTACKS[byColor ^ 1][sq] & pieces(byColor, PAWN))
+                | (KNIGHT_ATTACKS[sq] & pieces(byColor, KNIGHT))
+                | (KING_ATTACKS[sq] & pieces(byColor, KING))
+                | (bishopAttacks(sq, occ) & (pieces(byColor, BISHOP) | queens))
+                | (rookAttacks(sq, occ) & (pieces(byColor, ROOK) | queens));
+    }
+
+    /**
+     * Pseudo-legal reachability check: piece geometry, blockers and own-piece captures.
+     */
+    public boolean canReach(int from, int to) {
+        int piece = squares[from];
+        if (piece == EMPTY || from == to) {
+            return false;
+        }
+        int color = colorOf(piece);
+        long target = 1L << to;
+
+        if ((colors[color] & target) != 0) {
+            return false;
+        }
+
+        if (typeOf(piece) == PAWN) {
+            return (pawnPushes(color, from) & target) != 0
+                    || (PAWN_ATTACKS[color][from] & colors[color ^ 1] & target) != 0;
+        }
+
+        return (attacksFrom(from) & target) != 0;
+    }
+
+    public long pawnPushes(int color, int from) {
+        long empty = ~occupied;
+        int row = row(from);
+        if (color == WHITE) {
+            long single = (1L << from >>> 8) & empty;
+            long dbl = row == 6 ? (single >>> 8) & empty : 0L;
+            return single | dbl;
+        }
+        long single = (1L << from << 8) & empty;
+        long dbl = row == 1 ? (single << 8) & empty : 0L;
+        return single | dbl;
+    }
+}
@@ -0,0 +1,158 @@
+package engine;
+
+/**
+ * Static evaluation in centipawns from the side to move's point of view.
+ *
+ * Material and piece-square terms are maintained incrementally by BitBoard, pawn
+ * structure is cached by pawn hash, and only mobility is computed per call. The
+ * middlegame and endgame sums are blended by the remaining material (tapered eval).
+ *
+ * Each Evaluator owns a pawn cache, so use one per search thread.
+ */
+public final class Evaluator {
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    // by rows advanced from the starting row
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 90, 130, 0};
+
+    // per piece type: points per attacked square above a typical count
+    private static final int[] MOBILITY_MIDDLEGAME = {0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 4, 5, 4, 2, 0};
+    private static final int[] MOBILITY_BASE = {0, 4, 7, 7, 14, 0};
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // squares in front of a pawn on its own and adjacent files
+    private static final long[][] PASSED_MASK = new long[2][64];
+
+    static {
+        for (int col = 0; col < 8; col++) {
+            FILES[col] = 0x0101010101010101L << col;
+        }
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? FILES[col - 1] : 0L) | (col < 7 ? FILES[col + 1] : 0L);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            long files = FILES[BitBoard.col(sq)] | ADJACENT_FILES[BitBoard.col(sq)];
+            long above = BitBoard.row(sq) == 0 ? 0L : -1L >>> (64 - BitBoard.row(sq) * 8);
+            long below = BitBoard.row(sq) == 7 ? 0L : -1L << ((BitBoard.row(sq) + 1) * 8);
+            // white pawns advance towards row 0
+            PASSED_MASK[BitBoard.WHITE][sq] = files & above;
+            PASSED_MASK[BitBoard.BLACK][sq] = files & below;
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+
+    public Evaluator() {
+        this(1 << 14);
+    }
+
+    public Evaluator(int pawnTableEntries) {
+        this.pawnTable = new PawnHashTable(pawnTableEntries);
+    }
+
+    public int evaluate(BitBoard board) {
+        int middlegame = board.getMiddlegameScore();
+        int endgame = board.getEndgameScore();
+
+        int pawns = pawnStructure(board);
+        middlegame += PawnHashTable.middlegame(pawns);
+        endgame += PawnHashTable.endgame(pawns);
+
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            int sign = color == BitBoard.WHITE ? 1 : -1;
+            long mobilityArea = ~board.colorMask(color) & ~pawnAttacks(board, color ^ 1);
+            long occ = board.occupied();
+
+            for (int type = BitBoard.KNIGHT; type <= BitBoard.QUEEN; type++) {
+                long pieces = board.pieces(color, type);
+                while (pieces != 0) {
+                    int sq = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    int mobility = Long.bitCount(attacks(type, sq, occ) & mobilityArea) - MOBILITY_BASE[type];
+                    middlegame += sign * mobility * MOBILITY_MIDDLEGAME[type];
+                    endgame += sign * mobility * MOBILITY_ENDGAME[type];
+                }
+            }
+        }
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.TOTAL_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.TOTAL_PHASE - phase))
+                / PieceSquareTables.TOTAL_PHASE;
+        return board.getSideToMove() == BitBoard.WHITE ? score : -score;
+    }
+
+    public PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+
+    private int pawnStructure(BitBoard board) {
+        long key = board.getPawnHash();
+        int cached = pawnTable.probe(key);
+        if (cached != PawnHashTable.NO_ENTRY) {
+            return cached;
+        }
+
+        int middlegame = 0;
+        int endgame = 0;
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            int sign = color == BitBoard.WHITE ? 1 : -1;
+            long own = board.pieces(color, BitBoard.PAWN);
+            long enemy = board.pieces(color ^ 1, BitBoard.PAWN);
+
+            for (int col = 0; col < 8; col++) {
+                int count = Long.bitCount(own & FILES[col]);
+                if (count > 1) {
+                    middlegame += sign * (count - 1) * DOUBLED_MIDDLEGAME;
+                    endgame += sign * (count - 1) * DOUBLED_ENDGAME;
+                }
+                if (count > 0 && (own & ADJACENT_FILES[col]) == 0) {
+                    middlegame += sign * count * ISOLATED_MIDDLEGAME;
+                    endgame += sign * count * ISOLATED_ENDGAME;
+                }
+            }
+
+            long pawns = own;
+            while (pawns != 0) {
+                int sq = Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+                if ((PASSED_MASK[color][sq] & enemy) == 0) {
+                    int advanced = color == BitBoard.WHITE ? 6 - BitBoard.row(sq) : BitBoard.row(sq) - 1;
+                    middlegame += sign * PASSED_MIDDLEGAME[advanced];
+                    endgame += sign * PASSED_ENDGAME[advanced];
+                }
+            }
+        }
+
+        pawnTable.store(key, middlegame, endgame);
+        return PawnHashTable.pack(middlegame, endgame);
+    }
+
+    private static long pawnAttacks(BitBoard board, int color) {
+        long attacks = 0L;
+        long pawns = board.pieces(color, BitBoard.PAWN);
+        while (pawns != 0) {
+            attacks |= BitBoard.pawnAttacks(color, Long.numberOfTrailingZeros(pawns));
+            pawns &= pawns - 1;
+        }
+        return attacks;
+    }
+
+    private static long attacks(int type, int sq, long occ) {
+        switch (type) {
+            case BitBoard.KNIGHT:
+                return BitBoard.knightAttacks(sq);
+            case BitBoard.BISHOP:
+                return BitBoard.bishopAttacks(sq, occ);
+            case BitBoard.ROOK:
+                return BitBoard.rookAttacks(sq, occ);
+            default:
+                return BitBoard.queenAttacks(sq, occ);
+        }
+    }
+}
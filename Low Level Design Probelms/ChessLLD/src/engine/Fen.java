@@ -0,0 +1,180 @@
+package engine;
+
+/**
+ * Forsyth-Edwards Notation support for BitBoard.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+    // rows 0 and 7
+    private static final long BACK_RANKS = 0xFFL | 0xFFL << 56;
+
+    private Fen() {
+    }
+
+    /**
+     * Loads a position, rejecting anything the move generator cannot play from:
+     * malformed fields, castling rights without the king and rook on their home
+     * squares, an impossible en-passant square, or the side not to move in check.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed or the position is illegal
+     */
+    public static void load(BitBoard board, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+
+        board.clear();
+
+        String[] ranks = fields[0].split("/", -1);
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Invalid FEN, expected 8 ranks: " + fen);
+        }
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char c : ranks[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else {
+                    int index = PIECE_CHARS.indexOf(c);
+                    if (index < 0 || col > 7) {
+                        throw new IllegalArgumentException("Invalid FEN: " + fen);
+                    }
+                    board.putPiece(index, BitBoard.square(row, col));
+                    col++;
+                }
+            }
+            if (col != 8) {
+                throw new IllegalArgumentException("Invalid FEN, rank " + (8 - row) + " is not 8 files: " + fen);
+            }
+        }
+
+        if (Long.bitCount(board.pieces(BitBoard.WHITE, BitBoard.KING)) != 1
+                || Long.bitCount(board.pieces(BitBoard.BLACK, BitBoard.KING)) != 1) {
+            throw new IllegalArgumentException("Invalid FEN, each side needs one king: " + fen);
+        }
+
+        // a pawn on either back rank cannot occur in a game, and the evaluation has no terms for it
+        long pawns = board.pieces(BitBoard.WHITE, BitBoard.PAWN) | board.pieces(BitBoard.BLACK, BitBoard.PAWN);
+        if ((pawns & BACK_RANKS) != 0) {
+            throw new IllegalArgumentException("Invalid FEN, pawn on a back rank: " + fen);
+        }
+
+        int side;
+        if (fields[1].equals("w")) {
+            side = BitBoard.WHITE;
+        } else if (fields[1].equals("b")) {
+            side = BitBoard.BLACK;
+        } else {
+            throw new IllegalArgumentException("Invalid FEN, side to move: " + fen);
+        }
+        board.setSideToMove(side);
+
+        // the side that just moved cannot have left its king in check
+        if (board.isSquareAttacked(board.kingSquare(side ^ 1), side)) {
+            throw new IllegalArgumentException("Invalid FEN, side not to move is in check: " + fen);
+        }
+
+        int rights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                switch (c) {
+                    case 'K': rights |= castlingRight(board, BitBoard.WHITE, 7, BitBoard.WHITE_KING_SIDE, fen); break;
+                    case 'Q': rights |= castlingRight(board, BitBoard.WHITE, 0, BitBoard.WHITE_QUEEN_SIDE, fen); break;
+                    case 'k': rights |= castlingRight(board, BitBoard.BLACK, 7, BitBoard.BLACK_KING_SIDE, fen); break;
+                    case 'q': rights |= castlingRight(board, BitBoard.BLACK, 0, BitBoard.BLACK_QUEEN_SIDE, fen); break;
+                    default: throw new IllegalArgumentException("Invalid FEN, castling rights: " + fen);
+                }
+            }
+        }
+        board.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            // the square a pawn just skipped: rank 6 when white is to move, rank 3 when black is
+            char epRank = side == BitBoard.WHITE ? '6' : '3';
+            String ep = fields[3];
+            if (ep.length() != 2 || ep.charAt(0) < 'a' || ep.charAt(0) > 'h' || ep.charAt(1) != epRank) {
+                throw new IllegalArgumentException("Invalid FEN, en passant square: " + fen);
+            }
+            board.setEnPassantSquare(BitBoard.square('8' - ep.charAt(1), ep.charAt(0) - 'a'));
+        }
+
+        if (fields.length > 4) {
+            board.setHalfMoveClock(parseCounter(fields[4], 0, fen));
+        }
+        if (fields.length > 5) {
+            board.setFullMoveNumber(parseCounter(fields[5], 1, fen));
+        }
+    }
+
+    // the right, if the king and the rook in column rookCol are on their home squares
+    private static int castlingRight(BitBoard board, int color, int rookCol, int right, String fen) {
+        int homeRow = color == BitBoard.WHITE ? 7 : 0;
+        if (board.pieceAt(BitBoard.square(homeRow, 4)) != BitBoard.piece(color, BitBoard.KING)
+                || board.pieceAt(BitBoard.square(homeRow, rookCol)) != BitBoard.piece(color, BitBoard.ROOK)) {
+            throw new IllegalArgumentException("Invalid FEN, castling right without king and rook at home: " + fen);
+        }
+        return right;
+    }
+
+    private static int parseCounter(String field, int min, String fen) {
+        int value;
+        try {
+            value = Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN, move counter: " + fen);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("Invalid FEN, move counter: " + fen);
+        }
+        return value;
+    }
+
+    public static String toFen(BitBoard board) {
+        StringBuilder fen = new StringBuilder();
+
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = board.pieceAt(BitBoard.square(row, col));
+                if (piece == BitBoard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(PIECE_CHARS.charAt(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.getSideToMove() == BitBoard.WHITE ? " w " : " b ");
+
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & BitBoard.WHITE_KING_SIDE) != 0) fen.append('K');
+            if ((rights & BitBoard.WHITE_QUEEN_SIDE) != 0) fen.append('Q');
+            if ((rights & BitBoard.BLACK_KING_SIDE) != 0) fen.append('k');
+            if ((rights & BitBoard.BLACK_QUEEN_SIDE) != 0) fen.append('q');
+        }
+
+        int enPassant = board.getEnPassantSquare();
+        fen.append(' ').append(enPassant == BitBoard.EMPTY ? "-" : Moves.squareName(enPassant));
+        fen.append(' ').append(board.getHalfMoveClock());
+        fen.append(' ').append(board.getFullMoveNumber());
+
+        return fen.toString();
+    }
+}
@@ -0,0 +1,176 @@
+package engine;
+
+/**
+ * Legal move generator. Moves are written into a caller supplied int[] (see Moves),
+ * so generation does not allocate.
+ */
+public final class MoveGenerator {
+
+    public static final int MAX_MOVES = 256;
+
+    private static final long ROW_0 = 0xFFL;
+    private static final long ROW_7 = 0xFFL << 56;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Fills moves with every legal move for color and returns how many were written.
+     */
+    public static int generate(BitBoard board, int color, int[] moves) {
+        int count = 0;
+        long own = board.colorMask(color);
+        long enemy = board.colorMask(color ^ 1);
+        long occ = board.occupied();
+
+        count = generatePawnMoves(board, color, enemy, moves, count);
+
+        long knights = board.pieces(color, BitBoard.KNIGHT);
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addTargets(board, from, BitBoard.knightAttacks(from) & ~own, enemy, moves, count);
+        }
+
+        long diagonals = board.pieces(color, BitBoard.BISHOP) | board.pieces(color, BitBoard.QUEEN);
+        while (diagonals != 0) {
+            int from = Long.numberOfTrailingZeros(diagonals);
+            diagonals &= diagonals - 1;
+            count = addTargets(board, from, BitBoard.bishopAttacks(from, occ) & ~own, enemy, moves, count);
+        }
+
+        long straights = board.pieces(color, BitBoard.ROOK) | board.pieces(color, BitBoard.QUEEN);
+        while (straights != 0) {
+            int from = Long.numberOfTrailingZeros(straights);
+            straights &= straights - 1;
+            count = addTargets(board, from, BitBoard.rookAttacks(from, occ) & ~own, enemy, moves, count);
+        }
+
+        int king = board.kingSquare(color);
+        count = addTargets(board, king, BitBoard.kingAttacks(king) & ~own, enemy, moves, count);
+        count = generateCastling(board, color, king, moves, count);
+
+        return count;
+    }
+
+    private static int generatePawnMoves(BitBoard board, int color, long enemy, int[] moves, int count) {
+        long pawns = board.pieces(color, BitBoard.PAWN);
+        long promotionRow = color == BitBoard.WHITE ? ROW_0 : ROW_7;
+        int enPassant = color == board.getSideToMove() ? board.getEnPassantSquare() : BitBoard.EMPTY;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            long pushes = board.pawnPushes(color, from);
+            while (pushes != 0) {
+                int to = Long.numberOfTrailingZeros(pushes);
+                pushes &= pushes - 1;
+                if (((1L << to) & promotionRow) != 0) {
+                    count = addPromotions(board, from, to, Moves.PROMOTION, moves, count);
+                } else {
+                    int flag = Math.abs(to - from) == 16 ? Moves.DOUBLE_PUSH : Moves.QUIET;
+                    count = addIfLegal(board, Moves.encode(from, to, flag), moves, count);
+                }
+            }
+
+            long captures = BitBoard.pawnAttacks(color, from) & enemy;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << to) & promotionRow) != 0) {
+                    count = addPromotions(board, from, to, Moves.PROMOTION_CAPTURE, moves, count);
+                } else {
+                    count = addIfLegal(board, Moves.encode(from, to, Moves.CAPTURE), moves, count);
+                }
+            }
+
+            if (enPassant != BitBoard.EMPTY && (BitBoard.pawnAttacks(color, from) & (1L << enPassant)) != 0) {
+                count = addIfLegal(board, Moves.encode(from, enPassant, Moves.EN_PASSANT), moves, count);
+            }
+        }
+        return count;
+    }
+
+    private static int addPromotions(BitBoard board, int from, int to, int baseFlag, int[] moves, int count) {
+        if (!isLegal(board, Moves.encode(from, to, baseFlag))) {
+            return count;
+        }
+        // queen first so move ordering sees the strongest promotion early
+        for (int type = BitBoard.QUEEN; type >= BitBoard.KNIGHT; type--) {
+            moves[count++] = Moves.encode(from, to, baseFlag + type - BitBoard.KNIGHT);
+        }
+        return count;
+    }
+
+    private static int addTargets(BitBoard board, int from, long targets, long enemy, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flag = (enemy & (1L << to)) != 0 ? Moves.CAPTURE : Moves.QUIET;
+            count = addIfLegal(board, Moves.encode(from, to, flag), moves, count);
+        }
+        return count;
+    }
+
+    private static int generateCastling(BitBoard board, int color, int king, int[] moves, int count) {
+        int rights = board.getCastlingRights();
+        int kingSide = color == BitBoard.WHITE ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE;
+        int queenSide = color == BitBoard.WHITE ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+
+        if ((rights & (kingSide | queenSide)) == 0 || board.isSquareAttacked(king, color ^ 1)) {
+            return count;
+        }
+
+        long occ = board.occupied();
+        int enemy = color ^ 1;
+
+        if ((rights & kingSide) != 0
+                && (occ & ((1L << (king + 1)) | (1L << (king + 2)))) == 0
+                && !board.isSquareAttacked(king + 1, enemy)
+                && !board.isSquareAttacked(king + 2, enemy)) {
+            moves[count++] = Moves.encode(king, king + 2, Moves.KING_CASTLE);
+        }
+
+        if ((rights & queenSide) != 0
+                && (occ & ((1L << (king - 1)) | (1L << (king - 2)) | (1L << (king - 3)))) == 0
+                && !board.isSquareAttacked(king - 1, enemy)
+                && !board.isSquareAttacked(king - 2, enemy)) {
+            moves[count++] = Moves.encode(king, king - 2, Moves.QUEEN_CASTLE);
+        }
+        return count;
+    }
+
+    private static int addIfLegal(BitBoard board, int move, int[] moves, int count) {
+        if (isLegal(board, move)) {
+            moves[count++] = move;
+        }
+        return count;
+    }
+
+    /**
+     * Checks that a pseudo-legal move does not leave the own king attacked.
+     * Works on a modified occupancy mask, so pins and en passant discoveries
+     * are handled without playing the move.
+     */
+    public static boolean isLegal(BitBoard board, int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int color = board.colorAt(from);
+
+        int king = BitBoard.typeOf(board.pieceAt(from)) == BitBoard.KING ? to : board.kingSquare(color);
+        long captured = 1L << to;
+        long occ = (board.occupied() & ~(1L << from)) | captured;
+
+        if (Moves.flag(move) == Moves.EN_PASSANT) {
+            captured = 1L << (color == BitBoard.WHITE ? to + 8 : to - 8);
+            occ &= ~captured;
+        }
+
+        return (board.attackersOf(king, color ^ 1, occ) & ~captured) == 0;
+    }
+
+    public static boolean isInCheck(BitBoard board, int color) {
+        return board.isSquareAttacked(board.kingSquare(color), color ^ 1);
+    }
+}
@@ -0,0 +1,107 @@
+package engine;
+
+import dtos.Move;
+import enums.PieceType;
+
+/**
+ * Moves are packed into the low 16 bits of an int:
+ * bits 0-5 from square, bits 6-11 to square, bits 12-15 flags.
+ * The same 16 bits can be stored as a short in game records.
+ */
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    // promotion flags: PROMOTION + (piece type - KNIGHT), optionally | CAPTURE
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private Moves() {
+    }
+
+    public static int encode(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flag(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flag(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    public static int promotionType(int move) {
+        return BitBoard.KNIGHT + (flag(move) & 3);
+    }
+
+    public static short pack(int move) {
+        return (short) move;
+    }
+
+    public static int unpack(short packed) {
+        return packed & 0xFFFF;
+    }
+
+    public static Move toMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        PieceType promotion = isPromotion(move) ? PieceType.values()[promotionType(move)] : null;
+        return new Move(BitBoard.row(from), BitBoard.col(from), BitBoard.row(to), BitBoard.col(to), promotion);
+    }
+
+    /**
+     * Finds the encoded move matching a Move among the given legal moves, or NONE.
+     * Flags (capture, castling, en passant) depend on the position, which is why
+     * the lookup goes through a generated move list.
+     */
+    public static int fromMove(Move move, int[] legalMoves, int count) {
+        int from = BitBoard.square(move.getFromRow(), move.getFromCol());
+        int to = BitBoard.square(move.getToRow(), move.getToCol());
+        int promotion = move.getPromotion() == null ? BitBoard.QUEEN : BitBoard.typeIndex(move.getPromotion());
+
+        for (int i = 0; i < count; i++) {
+            int candidate = legalMoves[i];
+            if (from(candidate) == from && to(candidate) == to
+                    && (!isPromotion(candidate) || promotionType(candidate) == promotion)) {
+                return candidate;
+            }
+        }
+        return NONE;
+    }
+
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            text += "nbrq".charAt(promotionType(move) - BitBoard.KNIGHT);
+        }
+        return text;
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + BitBoard.col(sq)) + (char) ('8' - BitBoard.row(sq));
+    }
+}
@@ -0,0 +1,86 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: every thread runs its own iterative deepening search on a private
+ * copy of the root position, and all threads share one lock-free transposition
+ * table. Helpers fill the table with results the main thread then hits.
+ */
+public class ParallelSearch {
+
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    public ParallelSearch(int threads, int tableMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        TranspositionTable table = new TranspositionTable(tableMegabytes);
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, i);
+        }
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Searches on the calling thread plus the helpers; the main thread's result is
+     * returned with the node count of all threads.
+     */
+    public SearchResult search(BitBoard root, long timeMillis) {
+        return search(root, timeMillis, Search.MAX_PLY - 1);
+    }
+
+    public SearchResult search(BitBoard root, long timeMillis, int maxDepth) {
+        long start = System.currentTimeMillis();
+        List<Future<SearchResult>> running = new ArrayList<>();
+
+        // every worker copies the root here, before any helper can be stopped
+        for (Search search : searches) {
+            search.prepare(root, timeMillis);
+        }
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            running.add(helpers.submit(() -> helper.iterate(maxDepth)));
+        }
+
+        SearchResult main = searches[0].iterate(maxDepth);
+
+        long nodes = main.getNodes();
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (Future<SearchResult> future : running) {
+            try {
+                nodes += future.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+
+        return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes,
+                System.currentTimeMillis() - start);
+    }
+
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Direct-mapped cache of pawn structure scores keyed by BitBoard.getPawnHash().
+ * Pawn configurations repeat constantly inside a search, so most evaluations
+ * reduce the pawn terms to one lookup. Not thread safe: each Evaluator owns one.
+ */
+public class PawnHashTable {
+
+    public static final int NO_ENTRY = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    // middlegame score in the high 16 bits, endgame score in the low 16 bits
+    private final int[] scores;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.keys = new long[size];
+        this.scores = new int[size];
+        this.mask = size - 1;
+        // key 0 (no pawns) would otherwise match the empty slots
+        Arrays.fill(scores, NO_ENTRY);
+    }
+
+    public int probe(long key) {
+        int index = (int) key & mask;
+        if (keys[index] == key && scores[index] != NO_ENTRY) {
+            hits++;
+            return scores[index];
+        }
+        misses++;
+        return NO_ENTRY;
+    }
+
+    public void store(long key, int middlegame, int endgame) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        scores[index] = pack(middlegame, endgame);
+    }
+
+    public static int pack(int middlegame, int endgame) {
+        return (middlegame << 16) + endgame;
+    }
+
+    public static int middlegame(int packed) {
+        return (packed + 0x8000) >> 16;
+    }
+
+    public static int endgame(int packed) {
+        return (short) packed;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,72 @@
+package engine;
+
+/**
+ * Perft (performance test) counts leaf nodes of the legal move tree.
+ * Node counts are compared against published values for standard positions.
+ */
+public class Perft {
+
+    private static final int MAX_DEPTH = 16;
+
+    private final int[][] moveStack = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+    private final BitBoard board = new BitBoard();
+
+    public long perft(BitBoard position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        board.copyFrom(position);
+        return perft(0, depth);
+    }
+
+    private long perft(int ply, int depth) {
+        int[] moves = moveStack[ply];
+        int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(ply + 1, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        Object[][] positions = {
+                {Fen.START_POSITION, new long[]{20, 400, 8902, 197281, 4865609}},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[]{48, 2039, 97862, 4085603}},
+                {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[]{14, 191, 2812, 43238, 674624}},
+                {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", new long[]{6, 264, 9467, 422333}},
+                {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", new long[]{44, 1486, 62379, 2103487}}
+        };
+
+        Perft perft = new Perft();
+        BitBoard board = new BitBoard();
+        boolean allPassed = true;
+
+        for (Object[] position : positions) {
+            String fen = (String) position[0];
+            long[] expected = (long[]) position[1];
+            Fen.load(board, fen);
+            System.out.println(fen);
+
+            for (int depth = 1; depth <= expected.length; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(board, depth);
+                long elapsed = Math.max(1, System.nanoTime() - start);
+                boolean passed = nodes == expected[depth - 1];
+                allPassed &= passed;
+
+                System.out.printf("  depth %d: %d nodes (expected %d) %s, %.2f Mnps%n",
+                        depth, nodes, expected[depth - 1], passed ? "OK" : "FAIL", nodes * 1000.0 / elapsed);
+            }
+        }
+
+        System.out.println(allPassed ? "All perft results match." : "Perft mismatch found.");
+    }
+}
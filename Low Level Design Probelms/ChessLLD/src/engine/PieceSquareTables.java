@@ -0,0 +1,143 @@
+package engine;
+
+/**
+ * Material plus piece-square values for the middlegame and the endgame, indexed by
+ * piece code and square. BitBoard keeps their sums up to date on every piece change,
+ * so the evaluator reads them instead of scanning the board.
+ *
+ * Tables are written from white's point of view with a8 first, which is square 0 in
+ * BitBoard; black reads them mirrored (sq ^ 56). Black values are stored negated.
+ */
+public final class PieceSquareTables {
+
+    public static final int[] MIDDLEGAME_VALUES = {100, 320, 330, 500, 900, 0};
+    public static final int[] ENDGAME_VALUES = {120, 300, 320, 520, 950, 0};
+
+    // game phase weight per piece type; a full set of pieces adds up to TOTAL_PHASE
+    public static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+    public static final int TOTAL_PHASE = 24;
+
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            60, 60, 60, 60, 60, 60, 60, 60,
+            40, 40, 40, 40, 40, 40, 40, 40,
+            25, 25, 25, 25, 25, 25, 25, 25,
+            10, 10, 10, 10, 10, 10, 10, 10,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    private static final int[][] MIDDLEGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] middlegame = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+        int[][] endgame = {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+
+        for (int type = BitBoard.PAWN; type <= BitBoard.KING; type++) {
+            int white = BitBoard.piece(BitBoard.WHITE, type);
+            int black = BitBoard.piece(BitBoard.BLACK, type);
+            for (int sq = 0; sq < 64; sq++) {
+                MIDDLEGAME[white][sq] = MIDDLEGAME_VALUES[type] + middlegame[type][sq];
+                ENDGAME[white][sq] = ENDGAME_VALUES[type] + endgame[type][sq];
+                MIDDLEGAME[black][sq ^ 56] = -MIDDLEGAME[white][sq];
+                ENDGAME[black][sq ^ 56] = -ENDGAME[white][sq];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int middlegame(int piece, int sq) {
+        return MIDDLEGAME[piece][sq];
+    }
+
+    public static int endgame(int piece, int sq) {
+        return ENDGAME[piece][sq];
+    }
+
+    /**
+     * Computes the white-minus-black sum from scratch; used to verify the incremental one.
+     */
+    public static int compute(BitBoard board, boolean endgame) {
+        int score = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.pieceAt(sq);
+            if (piece != BitBoard.EMPTY) {
+                score += endgame ? ENDGAME[piece][sq] : MIDDLEGAME[piece][sq];
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,342 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Iterative deepening alpha-beta search with a transposition table,
+ * quiescence search and MVV-LVA / killer / history move ordering.
+ *
+ * All per-ply state is preallocated, so the search loop does not allocate.
+ */
+public class Search {
+
+    public static final int INFINITY = 30000;
+    public static final int MATE = 29000;
+    public static final int MAX_PLY = 64;
+
+    private static final int TT_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int KILLER_SCORE = 90_000;
+    private static final int CHECK_TIME_MASK = 2047;
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator = new Evaluator();
+    // helpers in a parallel search start one ply deeper on odd ids to spread the work
+    private final int helperId;
+    private final BitBoard board = new BitBoard();
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] moveScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[64][64];
+
+    private long nodes;
+    private long startMillis;
+    private long deadline;
+    private volatile boolean stopped;
+    private int rootBestMove;
+
+    public Search(TranspositionTable table) {
+        this(table, 0);
+    }
+
+    public Search(TranspositionTable table, int helperId) {
+        this.table = table;
+        this.helperId = helperId;
+    }
+
+    public SearchResult search(BitBoard root, long timeMillis) {
+        return search(root, timeMillis, MAX_PLY - 1);
+    }
+
+    public SearchResult search(BitBoard root, long timeMillis, int maxDepth) {
+        prepare(root, timeMillis);
+        return iterate(maxDepth);
+    }
+
+    /**
+     * Copies the root position and resets per-search state. Kept apart from iterate
+     * so a parallel search can prepare every worker before any of them is stopped.
+     */
+    void prepare(BitBoard root, long timeMillis) {
+        startMillis = System.currentTimeMillis();
+        deadline = startMillis + timeMillis;
+        stopped = false;
+        nodes = 0;
+        clearOrderingTables();
+        if (helperId == 0) {
+            table.newSearch();
+        }
+        board.copyFrom(root);
+    }
+
+    SearchResult iterate(int maxDepth) {
+        int bestMove = Moves.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            rootBestMove = Moves.NONE;
+            int score = alphaBeta(0, Math.min(depth + (helperId & 1), maxDepth), -INFINITY, INFINITY);
+
+            if (stopped) {
+                // a partial iteration only stands in when no depth has completed yet; otherwise
+                // its best move has not been compared with every alternative, so the last
+                // completed depth is kept
+                if (rootBestMove != Moves.NONE && bestMove == Moves.NONE) {
+                    bestMove = rootBestMove;
+                }
+                break;
+            }
+
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+
+            if (Math.abs(score) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.currentTimeMillis() - startMillis);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int alphaBeta(int ply, int depth, int alpha, int beta) {
+        int color = board.getSideToMove();
+        boolean inCheck = MoveGenerator.isInCheck(board, color);
+
+        // check extension keeps the search from stopping inside forced sequences
+        if (inCheck) {
+            depth++;
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(ply, alpha, beta);
+        }
+
+        if (timeUp()) {
+            return 0;
+        }
+
+        if (ply > 0 && (board.getHalfMoveClock() >= 100 || isRepetition(ply))) {
+            return 0;
+        }
+
+        long key = board.getHash();
+        long entry = table.probe(key);
+        int ttMove = Moves.NONE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = fromTableScore(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && ttScore >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGenerator.generate(board, color, list);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(ply, count, ttMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Moves.NONE;
+
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            board.makeMove(move);
+            int score = -alphaBeta(ply + 1, depth - 1, -beta, -alpha);
+            board.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+
+            if (score > alpha) {
+                alpha = score;
+            }
+
+            if (alpha >= beta) {
+                if (!Moves.isCapture(move)) {
+                    storeKiller(ply, move);
+                    history[Moves.from(move)][Moves.to(move)] += depth * depth;
+                }
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+
+        return bestScore;
+    }
+
+    private int quiescence(int ply, int alpha, int beta) {
+        if (timeUp()) {
+            return 0;
+        }
+
+        int standPat = evaluator.evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGenerator.generate(board, board.getSideToMove(), list);
+
+        // keep only captures and promotions
+        int tactical = 0;
+        for (int i = 0; i < count; i++) {
+            if (Moves.isCapture(list[i]) || Moves.isPromotion(list[i])) {
+                list[tactical++] = list[i];
+            }
+        }
+        scoreMoves(ply, tactical, Moves.NONE);
+
+        for (int i = 0; i < tactical; i++) {
+            int move = pickNext(ply, i, tactical);
+            board.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int ply, int count, int ttMove) {
+        int[] list = moves[ply];
+        int[] scores = moveScores[ply];
+
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (Moves.isCapture(move)) {
+                // MVV-LVA: most valuable victim first, least valuable attacker as tie break
+                int victim = Moves.flag(move) == Moves.EN_PASSANT
+                        ? BitBoard.PAWN : BitBoard.typeOf(board.pieceAt(Moves.to(move)));
+                int attacker = BitBoard.typeOf(board.pieceAt(Moves.from(move)));
+                scores[i] = CAPTURE_SCORE + victim * 10 - attacker;
+            } else if (Moves.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + Moves.promotionType(move);
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = Math.min(history[Moves.from(move)][Moves.to(move)], KILLER_SCORE - 2);
+            }
+        }
+    }
+
+    // counts a node of either search and reads the clock every CHECK_TIME_MASK + 1 nodes
+    private boolean timeUp() {
+        if ((++nodes & CHECK_TIME_MASK) == 0 && System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // selection sort step: swaps the best remaining move into position index
+    private int pickNext(int ply, int index, int count) {
+        int[] list = moves[ply];
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = list[best];
+        list[best] = list[index];
+        list[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private boolean isRepetition(int ply) {
+        long key = board.getHash();
+        int limit = Math.min(ply, board.getHalfMoveClock());
+        for (int plies = 2; plies <= limit; plies += 2) {
+            if (board.getHash(plies) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void clearOrderingTables() {
+        for (int[] killer : killers) {
+            killer[0] = Moves.NONE;
+            killer[1] = Moves.NONE;
+        }
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    // mate scores are stored relative to the node so they stay valid at other plies
+    private static int toTableScore(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,51 @@
+package engine;
+
+/**
+ * Measures Lazy SMP throughput for 1..N threads and prints the speedup
+ * in nodes per second relative to a single thread.
+ *
+ * Usage: SmpBenchmark [maxThreads] [millisPerPosition]
+ */
+public class SmpBenchmark {
+
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    };
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+
+        BitBoard board = new BitBoard();
+
+        // warm up the JIT so the single thread baseline is not penalised
+        run(board, 1, millis);
+
+        double baseline = run(board, 1, millis);
+        System.out.printf("threads %3d: %,12.0f nps, speedup %.2fx%n", 1, baseline, 1.0);
+
+        for (int threads = 2; threads <= maxThreads; threads = threads == maxThreads ? threads + 1 : Math.min(threads * 2, maxThreads)) {
+            double nps = run(board, threads, millis);
+            System.out.printf("threads %3d: %,12.0f nps, speedup %.2fx%n", threads, nps, nps / baseline);
+        }
+    }
+
+    private static double run(BitBoard board, int threads, long millis) {
+        ParallelSearch search = new ParallelSearch(threads, 256);
+        long nodes = 0;
+        long elapsed = 0;
+
+        for (String fen : POSITIONS) {
+            Fen.load(board, fen);
+            SearchResult result = search.search(board, millis);
+            nodes += result.getNodes();
+            elapsed += result.getElapsedMillis();
+        }
+        search.shutdown();
+
+        return nodes * 1000.0 / Math.max(1, elapsed);
+    }
+}
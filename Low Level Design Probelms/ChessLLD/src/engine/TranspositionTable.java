@@ -0,0 +1,124 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, open-addressed transposition table backed by a single long[].
+ *
+ * Each slot is two longs: (key ^ data, data). A reader accepts a slot only if
+ * both halves agree, so concurrent writers may race without locks - a torn
+ * write simply reads back as a miss (lockless hashing).
+ *
+ * data layout: bits 0-15 move, 16-31 score, 32-39 depth, 40-41 bound, 42-49 age, 63 valid.
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    public static final long NO_ENTRY = 0L;
+
+    // slots probed per lookup before a replacement victim is chosen
+    private static final int CLUSTER_SIZE = 4;
+    private static final long VALID = 1L << 63;
+
+    private final long[] table;
+    private final int clusterMask;
+    private volatile int age;
+
+    public TranspositionTable(int megabytes) {
+        long slots = Math.max(CLUSTER_SIZE, (long) megabytes * 1024 * 1024 / 16);
+        int clusters = Integer.highestOneBit((int) Math.min(slots / CLUSTER_SIZE, 1 << 26));
+        this.table = new long[clusters * CLUSTER_SIZE * 2];
+        this.clusterMask = clusters - 1;
+    }
+
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * Returns the packed data for key, or NO_ENTRY.
+     */
+    public long probe(long key) {
+        int base = index(key);
+        for (int i = 0; i < CLUSTER_SIZE; i++) {
+            int slot = base + i * 2;
+            long data = table[slot + 1];
+            if (data != NO_ENTRY && (table[slot] ^ data) == key) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = index(key);
+        int victim = base;
+        int victimValue = Integer.MAX_VALUE;
+
+        for (int i = 0; i < CLUSTER_SIZE; i++) {
+            int slot = base + i * 2;
+            long data = table[slot + 1];
+
+            if (data == NO_ENTRY || (table[slot] ^ data) == key) {
+                // keep the old best move when the new entry has none
+                if (move == Moves.NONE && data != NO_ENTRY) {
+                    move = move(data);
+                }
+                victim = slot;
+                break;
+            }
+
+            // prefer replacing shallow entries from older searches
+            int ageDistance = (age - age(data)) & 0xFF;
+            int value = depth(data) - ageDistance * 8;
+            if (value < victimValue) {
+                victimValue = value;
+                victim = slot;
+            }
+        }
+
+        long data = VALID
+                | ((long) age << 42)
+                | ((long) (bound & 3) << 40)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) (score & 0xFFFF) << 16)
+                | (move & 0xFFFF);
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & clusterMask) * CLUSTER_SIZE * 2;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 3);
+    }
+
+    public static int age(long data) {
+        return (int) ((data >>> 42) & 0xFF);
+    }
+}
@@ -0,0 +1,70 @@
+package engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for position hashing. A fixed seed keeps keys identical
+ * across runs, so hashes can be stored on disk (e.g. opening books).
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEEL);
+        for (long[] keys : PIECE_KEYS) {
+            for (int sq = 0; sq < 64; sq++) {
+                keys[sq] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int piece, int sq) {
+        return PIECE_KEYS[piece][sq];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    // only the file of the en passant square matters
+    public static long enPassant(int sq) {
+        return sq == BitBoard.EMPTY ? 0L : EN_PASSANT_KEYS[BitBoard.col(sq)];
+    }
+
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Computes the key from scratch; used to verify the incrementally updated one.
+     */
+    public static long compute(BitBoard board) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.pieceAt(sq);
+            if (piece != BitBoard.EMPTY) {
+                key ^= PIECE_KEYS[piece][sq];
+            }
+        }
+        key ^= CASTLING_KEYS[board.getCastlingRights()];
+        key ^= enPassant(board.getEnPassantSquare());
+        if (board.getSideToMove() == BitBoard.BLACK) {
+            key ^= SIDE_KEY;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,8 @@
+package enums;
+
+public enum MoveStatus {
+    ACCEPTED,
+    REJECTED,
+    GAME_OVER,
+    MAILBOX_FULL;
+}
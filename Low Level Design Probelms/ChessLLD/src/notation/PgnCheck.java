@@ -0,0 +1,85 @@
+package notation;
+
+import engine.BitBoard;
+import engine.Fen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that malformed or illegal FEN tags are rejected by Fen.load, and that a
+ * game with a bad FEN tag is reported invalid without stopping the import of the
+ * games after it. Exits with status 1 on a failure.
+ *
+ * Usage: PgnCheck
+ */
+public class PgnCheck {
+
+    private static final String[] BAD_FENS = {
+            "4k3/8/8/8/8/8/8/7K w K - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w k - 0 1",
+            "4k3/8/8/8/8/8/8/4Q2K w - - 0 1",
+            "K7/8/8/8/8/8/8/7k w KQkq - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - e 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - e3 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - i6 0 1",
+            "4k3/9/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/7/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3/8 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - x 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - 0 one",
+    };
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        BitBoard board = new BitBoard();
+        for (String fen : BAD_FENS) {
+            String error = null;
+            try {
+                Fen.load(board, fen);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            expect("rejects " + fen, error != null);
+        }
+
+        Path file = Files.createTempFile("pgncheck", ".pgn");
+        try {
+            Files.writeString(file, String.join("\n",
+                    "[Event \"good\"]", "", "1. e4 e5 2. Nf3 Nc6 1-0", "",
+                    "[Event \"bad fen\"]", "[FEN \"4k3/8/8/8/8/8/8/7K w K - 0 1\"]", "", "1. Kg2 Kd7 *", "",
+                    "[Event \"good fen\"]", "[FEN \"4k3/8/8/8/8/8/8/4K2R w K - 0 1\"]", "", "1. O-O Kd7 *", "",
+                    "[Event \"good\"]", "", "1. d4 d5 0-1", ""), StandardCharsets.UTF_8);
+
+            List<String> games = new ArrayList<>();
+            long count = PgnReader.read(file, game ->
+                    games.add(game.getTags().get("Event") + ":" + game.isValid() + ":" + game.getMoveCount()));
+            expect("imports all four games " + games, count == 4 && games.size() == 4);
+            expect("bad FEN game is invalid", games.size() > 1 && games.get(1).equals("bad fen:false:0"));
+            expect("games after it still import", games.size() == 4
+                    && games.get(2).equals("good fen:true:2") && games.get(3).equals("good:true:2"));
+        } finally {
+            Files.delete(file);
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("all checks passed");
+    }
+
+    private static void expect(String check, boolean passed) {
+        System.out.printf("%-6s %s%n", passed ? "ok" : "FAILED", check);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
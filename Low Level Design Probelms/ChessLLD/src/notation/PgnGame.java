@@ -0,0 +1,78 @@
+package notation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One game as produced by PgnReader. The reader reuses a single instance,
+ * so listeners must copy anything they want to keep after the callback.
+ */
+public class PgnGame {
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private short[] moves = new short[512];
+    private int moveCount;
+    private String startFen;
+    private String result = "*";
+    private String error;
+
+    void reset() {
+        tags.clear();
+        moveCount = 0;
+        startFen = null;
+        result = "*";
+        error = null;
+    }
+
+    void addMove(int move) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+        }
+        moves[moveCount++] = (short) move;
+    }
+
+    void setStartFen(String startFen) {
+        this.startFen = startFen;
+    }
+
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Packed moves (see engine.Moves); only the first getMoveCount() entries are valid.
+     */
+    public short[] getMoves() {
+        return moves;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // null when the game starts from the standard position
+    public String getStartFen() {
+        return startFen;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,116 @@
+package notation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports a PGN archive on several threads. The file is cut into byte ranges,
+ * each aligned to the next "[Event " tag, and every range gets its own PgnReader.
+ *
+ * The listener is called from all worker threads and must be thread-safe.
+ *
+ * Usage: PgnImporter file.pgn [threads]
+ */
+public class PgnImporter {
+
+    private static final byte[] GAME_START = "\n[Event ".getBytes(StandardCharsets.US_ASCII);
+
+    private final int threads;
+
+    public PgnImporter(int threads) {
+        this.threads = threads;
+    }
+
+    public long importFile(Path path, PgnListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = new long[threads + 1];
+            bounds[threads] = size;
+            for (int i = 1; i < threads; i++) {
+                bounds[i] = Math.max(bounds[i - 1], findGameStart(channel, size * i / threads));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Long>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    long start = bounds[i];
+                    long end = bounds[i + 1];
+                    if (start < end) {
+                        results.add(executor.submit(() -> new PgnReader(channel, start, end).read(listener)));
+                    }
+                }
+
+                long games = 0;
+                for (Future<Long> result : results) {
+                    games += result.get();
+                }
+                return games;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Import failed", e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    // offset of the first game header at or after from, or the file size
+    private static long findGameStart(FileChannel channel, long from) throws IOException {
+        long size = channel.size();
+        long position = Math.max(0, from - 1);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        int matched = 0;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                matched = b == GAME_START[matched] ? matched + 1 : (b == GAME_START[0] ? 1 : 0);
+                if (matched == GAME_START.length) {
+                    // skip the newline, start on '['
+                    return position + i - GAME_START.length + 2;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        AtomicLong moves = new AtomicLong();
+        AtomicLong invalid = new AtomicLong();
+
+        long start = System.nanoTime();
+        long games = new PgnImporter(threads).importFile(path, game -> {
+            moves.addAndGet(game.getMoveCount());
+            if (!game.isValid()) {
+                invalid.incrementAndGet();
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games (%d invalid), %d moves in %.2f s%n", games, invalid.get(), moves.get(), seconds);
+        System.out.printf("%,.0f games/sec, %,.0f moves/sec on %d threads%n", games / seconds, moves.get() / seconds, threads);
+    }
+}
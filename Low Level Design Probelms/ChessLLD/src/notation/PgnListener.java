@@ -0,0 +1,9 @@
+package notation;
+
+public interface PgnListener {
+
+    /**
+     * Called once per game. The game object is reused for the next game.
+     */
+    void onGame(PgnGame game);
+}
@@ -0,0 +1,263 @@
+package notation;
+
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming PGN reader over a memory-mapped file.
+ *
+ * The file is mapped in fixed windows and parsed byte by byte, so memory use does
+ * not depend on the file size. Every move is replayed on a BitBoard and must be
+ * legal; a game with an illegal move is still reported, marked invalid.
+ *
+ * A reader can be limited to a byte range: it reads every game that starts before
+ * the end of the range, which lets PgnImporter split one file across threads.
+ */
+public class PgnReader {
+
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long rangeEnd;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private int pushedBack = -1;
+
+    private final BitBoard board = new BitBoard();
+    private final BitBoard startPosition = new BitBoard();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final PgnGame game = new PgnGame();
+    private final StringBuilder token = new StringBuilder();
+    private byte[] tagBytes = new byte[256];
+
+    public PgnReader(FileChannel channel, long start, long end) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.rangeEnd = Math.min(end, fileSize);
+        this.position = start;
+        Fen.load(startPosition, Fen.START_POSITION);
+    }
+
+    /**
+     * Reads a whole file and returns the number of games.
+     */
+    public static long read(Path path, PgnListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PgnReader(channel, 0, channel.size()).read(listener);
+        }
+    }
+
+    public long read(PgnListener listener) throws IOException {
+        long games = 0;
+        boolean inGame = false;
+        boolean movesStarted = false;
+        game.reset();
+
+        int c;
+        while ((c = next()) != -1) {
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+
+            if (c == '[') {
+                if (movesStarted) {
+                    // the previous game had no result token
+                    listener.onGame(game);
+                    games++;
+                    game.reset();
+                    movesStarted = false;
+                    inGame = false;
+                }
+                // a game starting past the range belongs to the next reader
+                if (!inGame && position - 1 >= rangeEnd) {
+                    break;
+                }
+                readTag();
+                inGame = true;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';' || c == '%') {
+                skipUntil('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                readToken(c);
+            } else {
+                readToken(c);
+                if (isResult(token)) {
+                    game.setResult(token.toString());
+                    listener.onGame(game);
+                    games++;
+                    game.reset();
+                    inGame = false;
+                    movesStarted = false;
+                    continue;
+                }
+
+                stripMoveNumber(token);
+                if (token.length() == 0) {
+                    continue;
+                }
+
+                if (!movesStarted) {
+                    startGame();
+                    movesStarted = true;
+                    inGame = true;
+                }
+                playMove();
+            }
+        }
+
+        if (inGame) {
+            listener.onGame(game);
+            games++;
+        }
+        return games;
+    }
+
+    private void startGame() {
+        String fen = game.getStartFen();
+        if (fen == null) {
+            board.copyFrom(startPosition);
+            return;
+        }
+        try {
+            Fen.load(board, fen);
+        } catch (IllegalArgumentException e) {
+            game.setError(e.getMessage());
+        }
+    }
+
+    private void playMove() {
+        if (!game.isValid()) {
+            return;
+        }
+        int move = San.parse(board, token, moves);
+        if (move == Moves.NONE) {
+            game.setError("Illegal move " + token + " at ply " + (game.getMoveCount() + 1));
+            return;
+        }
+        board.makeMove(move);
+        game.addMove(move);
+    }
+
+    private void readTag() throws IOException {
+        int c;
+        token.setLength(0);
+        while ((c = next()) != -1 && Character.isWhitespace(c)) {
+            // skip leading spaces
+        }
+        while (c != -1 && !Character.isWhitespace(c) && c != '"' && c != ']') {
+            token.append((char) c);
+            c = next();
+        }
+        String name = token.toString();
+
+        while (c != -1 && c != '"' && c != ']') {
+            c = next();
+        }
+
+        int length = 0;
+        if (c == '"') {
+            while ((c = next()) != -1 && c != '"') {
+                if (c == '\\') {
+                    c = next();
+                }
+                if (length == tagBytes.length) {
+                    tagBytes = Arrays.copyOf(tagBytes, length * 2);
+                }
+                tagBytes[length++] = (byte) c;
+            }
+            skipUntil(']');
+        }
+
+        String value = new String(tagBytes, 0, length, StandardCharsets.UTF_8);
+        game.getTags().put(name, value);
+        if (name.equals("FEN")) {
+            game.setStartFen(value);
+        }
+    }
+
+    private void readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        int c;
+        while ((c = next()) != -1) {
+            if (Character.isWhitespace(c) || "{}()[];".indexOf(c) >= 0) {
+                pushedBack = c;
+                break;
+            }
+            token.append((char) c);
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = next()) != -1) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            }
+        }
+    }
+
+    private void skipUntil(int terminator) throws IOException {
+        int c;
+        while ((c = next()) != -1 && c != terminator) {
+            // skip
+        }
+    }
+
+    // "12." or "12...e5" -> "" or "e5"
+    private static void stripMoveNumber(StringBuilder token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == token.length() || token.charAt(i) != '.') {
+            return;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        token.delete(0, i);
+    }
+
+    private static boolean isResult(CharSequence token) {
+        return "1-0".contentEquals(token) || "0-1".contentEquals(token)
+                || "1/2-1/2".contentEquals(token) || "*".contentEquals(token);
+    }
+
+    private int next() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (position >= fileSize) {
+            return -1;
+        }
+        if (window == null || position >= windowStart + window.limit()) {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, fileSize - windowStart));
+        }
+        return window.get((int) (position++ - windowStart)) & 0xFF;
+    }
+}
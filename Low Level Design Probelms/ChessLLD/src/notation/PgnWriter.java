@@ -0,0 +1,80 @@
+package notation;
+
+import engine.BitBoard;
+import engine.Fen;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games as PGN with SAN moves, wrapping movetext at 80 columns.
+ */
+public class PgnWriter {
+
+    private static final int LINE_WIDTH = 80;
+
+    private final Writer out;
+    private final BitBoard board = new BitBoard();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @param startFen position the moves start from, or null for the standard start
+     * @param moves    packed moves (see engine.Moves)
+     */
+    public void write(Map<String, String> tags, String startFen, short[] moves, int count, String result) throws IOException {
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            out.write("[" + tag.getKey() + " \"" + tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"") + "\"]\n");
+        }
+        if (startFen != null && !tags.containsKey("FEN")) {
+            out.write("[SetUp \"1\"]\n[FEN \"" + startFen + "\"]\n");
+        }
+        out.write('\n');
+
+        Fen.load(board, startFen == null ? Fen.START_POSITION : startFen);
+
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int move = Moves.unpack(moves[i]);
+            StringBuilder text = new StringBuilder();
+            if (board.getSideToMove() == BitBoard.WHITE) {
+                text.append(board.getFullMoveNumber()).append(". ");
+            } else if (i == 0) {
+                text.append(board.getFullMoveNumber()).append("... ");
+            }
+            text.append(San.format(board, move, this.moves));
+            appendWord(line, text);
+            board.makeMove(move);
+        }
+        appendWord(line, result);
+
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    public void write(PgnGame game) throws IOException {
+        write(game.getTags(), game.getStartFen(), game.getMoves(), game.getMoveCount(), game.getResult());
+    }
+
+    private void appendWord(StringBuilder line, CharSequence word) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_WIDTH) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,168 @@
+package notation;
+
+import engine.BitBoard;
+import engine.MoveGenerator;
+import engine.Moves;
+
+/**
+ * Standard Algebraic Notation (e.g. "Nbd7", "exd5", "O-O", "e8=Q+").
+ * Parsing resolves the text against the legal moves of the position,
+ * so a parsed move is always legal.
+ */
+public final class San {
+
+    // indexed by piece type; pawns have no letter
+    private static final String PIECE_LETTERS = " NBRQK";
+
+    private San() {
+    }
+
+    /**
+     * Returns the legal move for san in the position, or Moves.NONE.
+     * moves is a scratch buffer of at least MoveGenerator.MAX_MOVES entries.
+     */
+    public static int parse(BitBoard board, CharSequence san, int[] moves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2) {
+            return Moves.NONE;
+        }
+
+        int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            int flag = end >= 5 ? Moves.QUEEN_CASTLE : Moves.KING_CASTLE;
+            for (int i = 0; i < count; i++) {
+                if (Moves.flag(moves[i]) == flag) {
+                    return moves[i];
+                }
+            }
+            return Moves.NONE;
+        }
+
+        int promotion = BitBoard.EMPTY;
+        char last = san.charAt(end - 1);
+        if (PIECE_LETTERS.indexOf(last) > 0) {
+            promotion = PIECE_LETTERS.indexOf(last);
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end < 2) {
+            return Moves.NONE;
+        }
+
+        int start = 0;
+        int type = BitBoard.PAWN;
+        int letter = PIECE_LETTERS.indexOf(san.charAt(0));
+        if (letter > 0) {
+            type = letter;
+            start = 1;
+        }
+
+        int toCol = san.charAt(end - 2) - 'a';
+        int toRow = '8' - san.charAt(end - 1);
+        if (toCol < 0 || toCol > 7 || toRow < 0 || toRow > 7) {
+            return Moves.NONE;
+        }
+        int to = BitBoard.square(toRow, toCol);
+
+        // optional disambiguation between the piece letter and the destination
+        int fromCol = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromCol = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = '8' - c;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Moves.from(move);
+            if (Moves.to(move) != to
+                    || BitBoard.typeOf(board.pieceAt(from)) != type
+                    || (fromCol >= 0 && BitBoard.col(from) != fromCol)
+                    || (fromRow >= 0 && BitBoard.row(from) != fromRow)) {
+                continue;
+            }
+            if (Moves.isPromotion(move) ? Moves.promotionType(move) == promotion : promotion == BitBoard.EMPTY) {
+                return move;
+            }
+        }
+        return Moves.NONE;
+    }
+
+    /**
+     * Formats a legal move in SAN, including check and mate markers.
+     */
+    public static String format(BitBoard board, int move, int[] moves) {
+        StringBuilder san = new StringBuilder();
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = BitBoard.typeOf(board.pieceAt(from));
+
+        if (Moves.flag(move) == Moves.KING_CASTLE) {
+            san.append("O-O");
+        } else if (Moves.flag(move) == Moves.QUEEN_CASTLE) {
+            san.append("O-O-O");
+        } else if (type == BitBoard.PAWN) {
+            if (Moves.isCapture(move)) {
+                san.append((char) ('a' + BitBoard.col(from))).append('x');
+            }
+            san.append(Moves.squareName(to));
+            if (Moves.isPromotion(move)) {
+                san.append('=').append(PIECE_LETTERS.charAt(Moves.promotionType(move)));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(type));
+            appendDisambiguation(board, move, type, moves, san);
+            if (Moves.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(Moves.squareName(to));
+        }
+
+        board.makeMove(move);
+        if (MoveGenerator.isInCheck(board, board.getSideToMove())) {
+            san.append(MoveGenerator.generate(board, board.getSideToMove(), moves) == 0 ? '#' : '+');
+        }
+        board.unmakeMove();
+
+        return san.toString();
+    }
+
+    private static void appendDisambiguation(BitBoard board, int move, int type, int[] moves, StringBuilder san) {
+        int from = Moves.from(move);
+        int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+        boolean ambiguous = false;
+        boolean sameCol = false;
+        boolean sameRow = false;
+
+        for (int i = 0; i < count; i++) {
+            int other = Moves.from(moves[i]);
+            if (other != from && Moves.to(moves[i]) == Moves.to(move)
+                    && BitBoard.typeOf(board.pieceAt(other)) == type) {
+                ambiguous = true;
+                sameCol |= BitBoard.col(other) == BitBoard.col(from);
+                sameRow |= BitBoard.row(other) == BitBoard.row(from);
+            }
+        }
+
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameCol) {
+            san.append((char) ('a' + BitBoard.col(from)));
+        } else if (!sameRow) {
+            san.append((char) ('8' - BitBoard.row(from)));
+        } else {
+            san.append(Moves.squareName(from));
+        }
+    }
+}
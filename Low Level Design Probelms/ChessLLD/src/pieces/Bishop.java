@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class Bishop extends Piece {
 
@@ -8,8 +9,17 @@ public class Bishop extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.BISHOP;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        boolean diagonal = Math.abs(destRow - getRow()) == Math.abs(destCol - getCol());
+        return diagonal && isPathClear(destRow, destCol, board);
     }
 }
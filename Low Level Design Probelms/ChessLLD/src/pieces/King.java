@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class King extends Piece {
 
@@ -8,8 +9,16 @@ public class King extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        return Math.abs(destRow - getRow()) <= 1 && Math.abs(destCol - getCol()) <= 1;
     }
 }
@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class Knight extends Piece {
 
@@ -8,8 +9,18 @@ public class Knight extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        int dRow = Math.abs(destRow - getRow());
+        int dCol = Math.abs(destCol - getCol());
+        return dRow * dCol == 2;
     }
 }
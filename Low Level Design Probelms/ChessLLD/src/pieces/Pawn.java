@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class Pawn extends Piece {
 
@@ -8,8 +9,30 @@ public class Pawn extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        // white moves towards row 0, black towards row 7
+        int forward = Color.WHITE.equals(getColor()) ? -1 : 1;
+        int startRow = Color.WHITE.equals(getColor()) ? 6 : 1;
+        int dRow = destRow - getRow();
+        int dCol = destCol - getCol();
+        Piece target = board[destRow][destCol];
+
+        if(dCol == 0 && target == null){
+            if(dRow == forward){
+                return true;
+            }
+            return dRow == 2 * forward && getRow() == startRow && board[getRow() + forward][getCol()] == null;
+        }
+        // diagonal capture; en passant needs game history and is validated by Board
+        return Math.abs(dCol) == 1 && dRow == forward && target != null;
     }
 }
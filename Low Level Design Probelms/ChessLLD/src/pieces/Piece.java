@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public abstract class Piece {
     private Color color;
@@ -36,8 +37,37 @@ public abstract class Piece {
         this.color = color;
     }
 
+    public abstract PieceType getType();
+
     public abstract boolean canMove(int destRow, int destCol, Piece[][] board);
 
+    protected boolean isValidTarget(int destRow, int destCol, Piece[][] board){
+        if(destRow < 0 || destRow >= board.length || destCol < 0 || destCol >= board[0].length){
+            return false;
+        }
+        if(destRow == row && destCol == col){
+            return false;
+        }
+        Piece target = board[destRow][destCol];
+        return target == null || !target.getColor().equals(color);
+    }
+
+    // squares strictly between the piece and the destination must be empty
+    protected boolean isPathClear(int destRow, int destCol, Piece[][] board){
+        int stepRow = Integer.signum(destRow - row);
+        int stepCol = Integer.signum(destCol - col);
+        int r = row + stepRow;
+        int c = col + stepCol;
+        while(r != destRow || c != destCol){
+            if(board[r][c] != null){
+                return false;
+            }
+            r += stepRow;
+            c += stepCol;
+        }
+        return true;
+    }
+
     public void move(int destRow, int destCol){
         this.row = destRow;
         this.col = destCol;
@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class Queen extends Piece {
 
@@ -8,8 +9,18 @@ public class Queen extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.QUEEN;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        boolean straight = destRow == getRow() || destCol == getCol();
+        boolean diagonal = Math.abs(destRow - getRow()) == Math.abs(destCol - getCol());
+        return (straight || diagonal) && isPathClear(destRow, destCol, board);
     }
 }
@@ -1,6 +1,7 @@
 package pieces;
 
 import enums.Color;
+import enums.PieceType;
 
 public class Rook extends Piece {
 
@@ -8,8 +9,17 @@ public class Rook extends Piece {
         super(color, row, col);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
     @Override
     public boolean canMove(int destRow, int destCol, Piece[][] board) {
-        return false;
+        if(!isValidTarget(destRow, destCol, board)){
+            return false;
+        }
+        boolean straight = destRow == getRow() || destCol == getCol();
+        return straight && isPathClear(destRow, destCol, board);
     }
 }
@@ -0,0 +1,173 @@
+package tablebase;
+
+import engine.BitBoard;
+import engine.MoveGenerator;
+
+import java.util.Arrays;
+
+/**
+ * Material configuration of a tablebase such as "KQK" or "KRKP": white's pieces,
+ * starting with the king, then black's. Positions are indexed as
+ * sideToMove * 64^n + the squares of the pieces in that order (base 64). There is
+ * no symmetry reduction, so every index decodes directly into a position.
+ *
+ * En passant is ignored, which only matters for tables with pawns on both sides.
+ */
+public final class Endgame {
+
+    public static final int MAX_PIECES = 4;
+
+    private static final String LETTERS = "PNBRQK";
+
+    private final String name;
+    // piece codes, each side's king first and equal pieces adjacent
+    private final int[] pieces;
+    private final long signature;
+    private final int size;
+
+    public Endgame(String name) {
+        int split = name.indexOf('K', 1);
+        if (!name.startsWith("K") || split < 0 || name.length() > MAX_PIECES) {
+            throw new IllegalArgumentException("Unsupported endgame: " + name);
+        }
+
+        int[] white = parseSide(name.substring(0, split), BitBoard.WHITE, name);
+        int[] black = parseSide(name.substring(split), BitBoard.BLACK, name);
+        this.pieces = new int[white.length + black.length];
+        System.arraycopy(white, 0, pieces, 0, white.length);
+        System.arraycopy(black, 0, pieces, white.length, black.length);
+
+        StringBuilder canonical = new StringBuilder();
+        long sig = 0;
+        for (int piece : pieces) {
+            canonical.append(LETTERS.charAt(BitBoard.typeOf(piece)));
+            if (BitBoard.typeOf(piece) != BitBoard.KING) {
+                sig += 1L << shift(BitBoard.colorOf(piece), BitBoard.typeOf(piece));
+            }
+        }
+        this.name = canonical.toString();
+        this.signature = sig;
+        this.size = 2 << (6 * pieces.length);
+    }
+
+    private static int[] parseSide(String side, int color, String name) {
+        int[] codes = new int[side.length()];
+        for (int i = 0; i < side.length(); i++) {
+            int type = LETTERS.indexOf(side.charAt(i));
+            if (type < 0 || (type == BitBoard.KING) != (i == 0)) {
+                throw new IllegalArgumentException("Unsupported endgame: " + name);
+            }
+            // strongest first, so the king (highest type) leads
+            codes[i] = -BitBoard.piece(color, type);
+        }
+        Arrays.sort(codes);
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = -codes[i];
+        }
+        return codes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getSignature() {
+        return signature;
+    }
+
+    /**
+     * Material signature of a board: a 4-bit count per color and non-king piece type.
+     */
+    public static long signature(BitBoard board) {
+        long sig = 0;
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            for (int type = BitBoard.PAWN; type < BitBoard.KING; type++) {
+                sig += (long) Long.bitCount(board.pieces(color, type)) << shift(color, type);
+            }
+        }
+        return sig;
+    }
+
+    /**
+     * The same material with the colors swapped.
+     */
+    public static long mirror(long signature) {
+        return (signature >>> 20) | ((signature & 0xFFFFFL) << 20);
+    }
+
+    /**
+     * True when neither side can mate: no pawns, rooks or queens and at most one minor piece.
+     */
+    public static boolean isInsufficient(long signature) {
+        long pawnsRooksQueens = 0;
+        long minors = 0;
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            pawnsRooksQueens += count(signature, color, BitBoard.PAWN)
+                    + count(signature, color, BitBoard.ROOK) + count(signature, color, BitBoard.QUEEN);
+            minors += count(signature, color, BitBoard.KNIGHT) + count(signature, color, BitBoard.BISHOP);
+        }
+        return pawnsRooksQueens == 0 && minors <= 1;
+    }
+
+    private static long count(long signature, int color, int type) {
+        return (signature >>> shift(color, type)) & 0xF;
+    }
+
+    private static int shift(int color, int type) {
+        return (color * 5 + type) * 4;
+    }
+
+    /**
+     * Index of a board with this material. With mirrored set the board holds the
+     * material with colors swapped and is read upside down.
+     */
+    public int index(BitBoard board, boolean mirrored) {
+        int side = board.getSideToMove();
+        int index = mirrored ? side ^ 1 : side;
+        int flip = mirrored ? 56 : 0;
+        int previous = BitBoard.EMPTY;
+        long remaining = 0;
+
+        for (int piece : pieces) {
+            if (piece != previous) {
+                int color = BitBoard.colorOf(piece);
+                remaining = board.pieces(mirrored ? color ^ 1 : color, BitBoard.typeOf(piece));
+                previous = piece;
+            }
+            int sq = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            index = (index << 6) | (sq ^ flip);
+        }
+        return index;
+    }
+
+    /**
+     * Sets up the position for index. Returns false if it is not a legal position:
+     * two pieces on one square, a pawn on its first or last row, or the side not
+     * to move in check.
+     */
+    public boolean setup(BitBoard board, int index) {
+        board.clear();
+        int rest = index;
+        for (int i = pieces.length - 1; i >= 0; i--) {
+            int sq = rest & 63;
+            rest >>>= 6;
+            int row = BitBoard.row(sq);
+            if (board.isOccupied(sq) || (BitBoard.typeOf(pieces[i]) == BitBoard.PAWN && (row == 0 || row == 7))) {
+                return false;
+            }
+            board.putPiece(pieces[i], sq);
+        }
+        board.setSideToMove(rest);
+        return !MoveGenerator.isInCheck(board, rest ^ 1);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
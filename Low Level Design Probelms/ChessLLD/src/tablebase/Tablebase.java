@@ -0,0 +1,160 @@
+package tablebase;
+
+import engine.BitBoard;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped endgame tables written by TablebaseGenerator.
+ *
+ * A table file is a 16-byte header (magic, position count, longest DTM, unused),
+ * the WDL values packed four to a byte, then one DTM byte per position, in plies
+ * to mate. Results are from the side to move's point of view and are returned
+ * packed as wdl | dtm << 2, or NOT_FOUND.
+ */
+public class Tablebase {
+
+    public static final int NOT_FOUND = -1;
+
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int INVALID = 3;
+
+    static final int MAGIC = 0x54424C31;
+    static final int HEADER_SIZE = 16;
+    static final String EXTENSION = ".tb";
+
+    private final List<Table> tables = new ArrayList<>();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int maxDtm;
+
+    /**
+     * Maps every table file in directory. A missing directory gives an empty tablebase.
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        if (!Files.isDirectory(directory)) {
+            return tablebase;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                tablebase.add(new Endgame(name.substring(0, name.length() - EXTENSION.length())), file);
+            }
+        }
+        return tablebase;
+    }
+
+    private void add(Endgame endgame, Path file) throws IOException {
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.BIG_ENDIAN);
+            if (data.getInt(0) != MAGIC || data.getInt(4) != endgame.size()
+                    || channel.size() != HEADER_SIZE + endgame.size() / 4 + endgame.size()) {
+                throw new IOException("Not a " + endgame + " table: " + file);
+            }
+            tables.add(new Table(endgame, data));
+            maxDtm = Math.max(maxDtm, data.getInt(8));
+        }
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    /**
+     * Longest distance to mate over all loaded tables.
+     */
+    public int getMaxDtm() {
+        return maxDtm;
+    }
+
+    public int probe(BitBoard board) {
+        long signature = Endgame.signature(board);
+        if (Endgame.isInsufficient(signature)) {
+            return DRAW;
+        }
+        for (Table table : tables) {
+            if (table.endgame.getSignature() == signature) {
+                return table.read(table.endgame.index(board, false));
+            }
+            if (Endgame.mirror(table.endgame.getSignature()) == signature) {
+                return table.read(table.endgame.index(board, true));
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * The move that wins fastest, keeps the draw, or loses slowest; Moves.NONE
+     * if the position or one of its successors is not covered.
+     */
+    public synchronized int bestMove(BitBoard board) {
+        if (probe(board) == NOT_FOUND) {
+            return Moves.NONE;
+        }
+        int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+        int bestMove = Moves.NONE;
+        int bestRank = Integer.MIN_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            int result = probe(board);
+            board.unmakeMove();
+            if (result == NOT_FOUND) {
+                return Moves.NONE;
+            }
+
+            int rank;
+            if (wdl(result) == LOSS) {
+                rank = 1000 - dtm(result);
+            } else if (wdl(result) == WIN) {
+                rank = -1000 + dtm(result);
+            } else {
+                rank = 0;
+            }
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    public static int wdl(int result) {
+        return result & 3;
+    }
+
+    public static int dtm(int result) {
+        return result >>> 2;
+    }
+
+    private static final class Table {
+        private final Endgame endgame;
+        private final MappedByteBuffer data;
+
+        private Table(Endgame endgame, MappedByteBuffer data) {
+            this.endgame = endgame;
+            this.data = data;
+        }
+
+        private int read(int index) {
+            int wdl = (data.get(HEADER_SIZE + (index >>> 2)) >>> ((index & 3) * 2)) & 3;
+            int dtm = data.get(HEADER_SIZE + endgame.size() / 4 + index) & 0xFF;
+            return wdl | dtm << 2;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package tablebase;
+
+import engine.BitBoard;
+import engine.MoveGenerator;
+import engine.Moves;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds an endgame table by retrograde analysis: checkmates are resolved first,
+ * then each pass resolves the positions one ply further from mate, until a pass
+ * finds nothing new. A position is won if some move reaches a position lost for
+ * the opponent, and lost if every move reaches one won for the opponent; what is
+ * never resolved is a draw.
+ *
+ * Captures and promotions leave the table and are looked up in the already
+ * generated tables (KPK needs KQK and KRK). Each pass is split into slices of the
+ * index space on a fork/join pool.
+ *
+ * Usage: TablebaseGenerator outputDir [threads] [endgame ...]  (default KQK KRK KPK)
+ */
+public class TablebaseGenerator {
+
+    private static final int SLICE = 4096;
+    private static final int UNRESOLVED = 0;
+    // stored values are plies to mate + 1, so 0 can mean unresolved
+    private static final int ILLEGAL = 0xFF;
+
+    private final Endgame endgame;
+    private final Tablebase known;
+    private final byte[] results;
+    private int maxDtm;
+
+    public TablebaseGenerator(Endgame endgame, Tablebase known) {
+        this.endgame = endgame;
+        this.known = known;
+        this.results = new byte[endgame.size()];
+    }
+
+    public void generate(ForkJoinPool pool) {
+        int resolved = pool.invoke(new Pass(0, results.length, 0));
+        // conversions into other tables can resolve positions after a quiet pass
+        int horizon = known.getMaxDtm() + 1;
+
+        for (int plies = 1; plies < ILLEGAL - 1 && (resolved > 0 || plies <= horizon); plies++) {
+            resolved = pool.invoke(new Pass(0, results.length, plies));
+            if (resolved > 0) {
+                maxDtm = plies;
+            }
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        byte[] wdl = new byte[results.length / 4];
+        for (int i = 0; i < results.length; i++) {
+            wdl[i >>> 2] |= wdl(results[i] & 0xFF) << ((i & 3) * 2);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(results.length);
+            out.writeInt(maxDtm);
+            out.writeInt(0);
+            out.write(wdl);
+            for (byte value : results) {
+                int stored = value & 0xFF;
+                out.writeByte(stored == UNRESOLVED || stored == ILLEGAL ? 0 : stored - 1);
+            }
+        }
+    }
+
+    private static int wdl(int stored) {
+        if (stored == ILLEGAL) {
+            return Tablebase.INVALID;
+        }
+        if (stored == UNRESOLVED) {
+            return Tablebase.DRAW;
+        }
+        return ((stored - 1) & 1) == 1 ? Tablebase.WIN : Tablebase.LOSS;
+    }
+
+    /**
+     * Counts of won, drawn and lost positions with the side to move, in that order.
+     */
+    public long[] summary() {
+        long[] counts = new long[3];
+        for (byte value : results) {
+            int wdl = wdl(value & 0xFF);
+            if (wdl == Tablebase.WIN) {
+                counts[0]++;
+            } else if (wdl == Tablebase.DRAW) {
+                counts[1]++;
+            } else if (wdl == Tablebase.LOSS) {
+                counts[2]++;
+            }
+        }
+        return counts;
+    }
+
+    public int getMaxDtm() {
+        return maxDtm;
+    }
+
+    // one pass over [start, end); returns the number of positions it resolved
+    private final class Pass extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int plies;
+
+        private Pass(int start, int end, int plies) {
+            this.start = start;
+            this.end = end;
+            this.plies = plies;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (end - start > SLICE) {
+                int mid = (start + end) >>> 1;
+                Pass left = new Pass(start, mid, plies);
+                left.fork();
+                int right = new Pass(mid, end, plies).compute();
+                return right + left.join();
+            }
+
+            BitBoard board = new BitBoard();
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int resolved = 0;
+
+            for (int index = start; index < end; index++) {
+                if (results[index] != UNRESOLVED) {
+                    continue;
+                }
+                if (plies == 0) {
+                    if (!endgame.setup(board, index)) {
+                        results[index] = (byte) ILLEGAL;
+                    } else if (MoveGenerator.generate(board, board.getSideToMove(), moves) == 0
+                            && MoveGenerator.isInCheck(board, board.getSideToMove())) {
+                        results[index] = 1;
+                        resolved++;
+                    }
+                } else {
+                    endgame.setup(board, index);
+                    if (resolve(board, moves)) {
+                        results[index] = (byte) (plies + 1);
+                        resolved++;
+                    }
+                }
+            }
+            return resolved;
+        }
+
+        // true if the position is won or lost in exactly plies
+        private boolean resolve(BitBoard board, int[] moves) {
+            int count = MoveGenerator.generate(board, board.getSideToMove(), moves);
+            boolean allLose = count > 0;
+
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                board.makeMove(move);
+                int childPlies = childPlies(board, move);
+                board.unmakeMove();
+
+                if (childPlies < 0) {
+                    allLose = false;
+                } else if ((childPlies & 1) == 0) {
+                    // the opponent is mated in childPlies, so this side wins in childPlies + 1
+                    return true;
+                }
+            }
+            return allLose;
+        }
+
+        // plies to mate of the position after move, or -1 if it is not resolved before this pass
+        private int childPlies(BitBoard board, int move) {
+            int childPlies;
+            if (Moves.isCapture(move) || Moves.isPromotion(move)) {
+                int result = known.probe(board);
+                if (result == Tablebase.NOT_FOUND || Tablebase.wdl(result) == Tablebase.DRAW) {
+                    return -1;
+                }
+                childPlies = Tablebase.dtm(result);
+            } else {
+                int stored = results[endgame.index(board, false)] & 0xFF;
+                if (stored == UNRESOLVED || stored == ILLEGAL) {
+                    return -1;
+                }
+                childPlies = stored - 1;
+            }
+            // values written during this pass are ignored, so slices do not depend on each other
+            return childPlies < plies ? childPlies : -1;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "tablebases");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String[] names = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length)
+                : new String[]{"KQK", "KRK", "KPK"};
+
+        Files.createDirectories(directory);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (String name : names) {
+                Endgame endgame = new Endgame(name);
+                long start = System.nanoTime();
+
+                TablebaseGenerator generator = new TablebaseGenerator(endgame, Tablebase.open(directory));
+                generator.generate(pool);
+                generator.write(directory.resolve(endgame.getName() + Tablebase.EXTENSION));
+
+                long[] summary = generator.summary();
+                System.out.printf("%s: %d positions, win %d draw %d loss %d, longest mate %d plies, %d ms%n",
+                        endgame, endgame.size(), summary[0], summary[1], summary[2], generator.getMaxDtm(),
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
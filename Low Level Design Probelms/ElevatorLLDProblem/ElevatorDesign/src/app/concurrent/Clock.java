@@ -0,0 +1,18 @@
+package app.concurrent;
+
+/**
+ * Time source and timer used by ElevatorController when elevators are driven by
+ * events instead of their own sleeping threads.
+ */
+public interface Clock {
+
+    /**
+     * Current time in milliseconds.
+     */
+    long now();
+
+    /**
+     * Runs task once, delayMillis from now.
+     */
+    void schedule(long delayMillis, Runnable task);
+}
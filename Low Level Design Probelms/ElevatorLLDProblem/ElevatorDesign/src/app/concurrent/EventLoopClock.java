@@ -0,0 +1,58 @@
+package app.concurrent;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wall-clock Clock backed by a small pool of event-loop threads. Passed to
+ * ElevatorController, it replaces the one-thread-per-elevator model: every car
+ * is just a timer task between floors, so the thread count is fixed by the pool
+ * size no matter how many elevators there are.
+ *
+ * The controller never has more than one step pending per elevator, so each car
+ * is still stepped by one thread at a time even when the pool has several.
+ */
+public class EventLoopClock implements Clock {
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    public EventLoopClock() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EventLoopClock(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, task -> {
+            Thread thread = new Thread(task, "elevator-loop-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public long now() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void schedule(long delayMillis, Runnable task) {
+        executor.schedule(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // the executor would otherwise swallow it into the unused future
+                e.printStackTrace();
+            }
+        }, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public int getPendingEvents() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package app.concurrent;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded multi-producer, single-consumer linked queue of longs (Vyukov style).
+ *
+ * offer is wait-free: one atomic swap of the tail plus a volatile write, never a
+ * lock, so producers cannot be held up by the consumer or by each other. Values
+ * are stored unboxed, so an offer allocates only its node. poll and isEmpty on the
+ * consumer side must only be called from a single thread.
+ */
+public class MpscLongQueue {
+
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private static final class Node {
+        private final long value;
+        private volatile Node next;
+
+        private Node(long value) {
+            this.value = value;
+        }
+    }
+
+    private final AtomicReference<Node> tail;
+    // consumer side; the head node's value has already been taken
+    private volatile Node head;
+
+    public MpscLongQueue() {
+        Node stub = new Node(EMPTY);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * value must not be EMPTY.
+     */
+    public void offer(long value) {
+        Node node = new Node(value);
+        Node previous = tail.getAndSet(node);
+        // between the swap and this write the consumer sees the queue end at previous
+        previous.next = node;
+    }
+
+    /**
+     * Next value, or EMPTY if the queue is empty (or an offer is still linking its node).
+     */
+    public long poll() {
+        Node next = head.next;
+        if (next == null) {
+            return EMPTY;
+        }
+        head = next;
+        return next.value;
+    }
+
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+}
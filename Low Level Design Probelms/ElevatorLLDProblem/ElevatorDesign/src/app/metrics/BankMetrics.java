@@ -0,0 +1,102 @@
+package app.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of one ElevatorController: an ElevatorMetrics per car plus the scheduler's
+ * decision latency. Bank-wide histograms are merged from the cars when pulled, so
+ * recording touches only the car's own counters.
+ */
+public class BankMetrics {
+
+    private static final long HIGHEST_NANOS = 1_000_000_000L;
+
+    private final LongSupplier clock;
+    private final List<ElevatorMetrics> cars = new ArrayList<>();
+    // wall-clock nanoseconds per selectElevator call
+    private final Histogram decisionNanos = new Histogram(HIGHEST_NANOS, 5);
+
+    public BankMetrics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Creates and registers the metrics of one car; called while the bank is built.
+     */
+    public ElevatorMetrics addCar(int elevatorId) {
+        ElevatorMetrics metrics = new ElevatorMetrics(elevatorId, clock);
+        cars.add(metrics);
+        return metrics;
+    }
+
+    public void recordDecision(long nanos) {
+        decisionNanos.record(nanos);
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public List<ElevatorMetrics> getCars() {
+        return Collections.unmodifiableList(cars);
+    }
+
+    public ElevatorMetrics getCar(int elevatorId) {
+        return cars.get(elevatorId - 1);
+    }
+
+    public Histogram getDecisionNanos() {
+        return decisionNanos;
+    }
+
+    public Histogram getWaitTimes() {
+        return merge(ElevatorMetrics::getWaitTimes);
+    }
+
+    public Histogram getRideTimes() {
+        return merge(ElevatorMetrics::getRideTimes);
+    }
+
+    public Histogram getQueueLengths() {
+        return merge(ElevatorMetrics::getQueueLengths);
+    }
+
+    public Histogram getStopsPerTrip() {
+        return merge(ElevatorMetrics::getStopsPerTrip);
+    }
+
+    public long getStops() {
+        return cars.stream().mapToLong(ElevatorMetrics::getStops).sum();
+    }
+
+    public long getFloorsTravelled() {
+        return cars.stream().mapToLong(ElevatorMetrics::getFloorsTravelled).sum();
+    }
+
+    public long getReversals() {
+        return cars.stream().mapToLong(ElevatorMetrics::getReversals).sum();
+    }
+
+    public long getHallCalls() {
+        return cars.stream().mapToLong(ElevatorMetrics::getHallCalls).sum();
+    }
+
+    public long getCarCalls() {
+        return cars.stream().mapToLong(ElevatorMetrics::getCarCalls).sum();
+    }
+
+    private Histogram merge(Function<ElevatorMetrics, Histogram> histogram) {
+        if (cars.isEmpty()) {
+            return new Histogram(1, 1);
+        }
+        Histogram merged = histogram.apply(cars.get(0)).emptyCopy();
+        for (ElevatorMetrics car : cars) {
+            merged.add(histogram.apply(car));
+        }
+        return merged;
+    }
+}
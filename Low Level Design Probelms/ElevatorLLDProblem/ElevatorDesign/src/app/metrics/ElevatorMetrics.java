@@ -0,0 +1,115 @@
+package app.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Figures for one car. Times are in milliseconds of the controller's clock, so a
+ * simulated day reports simulated waits. Every record method only touches
+ * preallocated atomics and can be called from any thread.
+ */
+public class ElevatorMetrics {
+
+    private static final long HIGHEST_MILLIS = 3_600_000L;
+    private static final long HIGHEST_COUNT = 1024;
+    private static final int PRECISION_BITS = 4;
+
+    private final int elevatorId;
+    private final LongSupplier clock;
+
+    // hall call to the car stopping for it
+    private final Histogram waitTimes = new Histogram(HIGHEST_MILLIS, PRECISION_BITS);
+    // car call to the car stopping for it
+    private final Histogram rideTimes = new Histogram(HIGHEST_MILLIS, PRECISION_BITS);
+    // pending stops, sampled once per step
+    private final Histogram queueLengths = new Histogram(HIGHEST_COUNT, PRECISION_BITS);
+    // stops between leaving idle and becoming idle again
+    private final Histogram stopsPerTrip = new Histogram(HIGHEST_COUNT, PRECISION_BITS);
+    private final AtomicLong hallCalls = new AtomicLong();
+    private final AtomicLong carCalls = new AtomicLong();
+    private final AtomicLong stops = new AtomicLong();
+    // energy proxy
+    private final AtomicLong floorsTravelled = new AtomicLong();
+    private final AtomicLong reversals = new AtomicLong();
+
+    public ElevatorMetrics(int elevatorId, LongSupplier clock) {
+        this.elevatorId = elevatorId;
+        this.clock = clock;
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public void recordCall(boolean carCall) {
+        (carCall ? carCalls : hallCalls).incrementAndGet();
+    }
+
+    public void recordWait(long millis) {
+        waitTimes.record(millis);
+    }
+
+    public void recordRide(long millis) {
+        rideTimes.record(millis);
+    }
+
+    public void recordQueueLength(int pendingStops) {
+        queueLengths.record(pendingStops);
+    }
+
+    public void recordFloorTravelled() {
+        floorsTravelled.incrementAndGet();
+    }
+
+    public void recordStop() {
+        stops.incrementAndGet();
+    }
+
+    public void recordTrip(int tripStops) {
+        stopsPerTrip.record(tripStops);
+    }
+
+    public void recordReversal() {
+        reversals.incrementAndGet();
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public Histogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public Histogram getRideTimes() {
+        return rideTimes;
+    }
+
+    public Histogram getQueueLengths() {
+        return queueLengths;
+    }
+
+    public Histogram getStopsPerTrip() {
+        return stopsPerTrip;
+    }
+
+    public long getHallCalls() {
+        return hallCalls.get();
+    }
+
+    public long getCarCalls() {
+        return carCalls.get();
+    }
+
+    public long getStops() {
+        return stops.get();
+    }
+
+    public long getFloorsTravelled() {
+        return floorsTravelled.get();
+    }
+
+    public long getReversals() {
+        return reversals.get();
+    }
+}
@@ -0,0 +1,124 @@
+package app.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram in the style of HdrHistogram. Values are bucketed
+ * by power of two, and each power of two is split into 2^precisionBits linear
+ * sub-buckets, so a value is kept to within 1 / 2^precisionBits of itself.
+ *
+ * record is a handful of atomic updates on preallocated arrays and never allocates.
+ * Readers may see a recording in progress (a bucket counted before the total), so
+ * figures read while recording goes on are approximate but never torn.
+ */
+public class Histogram {
+
+    private final int precisionBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Values above highestValue are still counted, in the top bucket.
+     */
+    public Histogram(long highestValue, int precisionBits) {
+        this.precisionBits = precisionBits;
+        this.subBuckets = 1 << precisionBits;
+        this.counts = new AtomicLongArray(index(Math.max(highestValue, subBuckets)) + 1);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(Math.min(index(value), counts.length() - 1));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another recorder raised max; retry against the new value
+        }
+    }
+
+    /**
+     * Adds every value recorded in other, which must have the same layout.
+     */
+    public void add(Histogram other) {
+        if (other.precisionBits != precisionBits || other.counts.length() != counts.length()) {
+            throw new IllegalArgumentException("Histogram layouts differ");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long n = other.counts.get(i);
+            if (n != 0) {
+                counts.addAndGet(i, n);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        long value = other.max.get();
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * Same bucket layout, no values.
+     */
+    public Histogram emptyCopy() {
+        return new Histogram(highestValue(counts.length() - 1), precisionBits);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Smallest bucket bound that at least fraction (0..1] of the values fall under.
+     */
+    public long getValueAtPercentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    private int index(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return (shift + 1) * subBuckets + (int) ((value >>> shift) - subBuckets);
+    }
+
+    // largest value that lands in bucket index
+    private long highestValue(int index) {
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long lowest = (long) (subBuckets + index % subBuckets) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,106 @@
+package app.metrics;
+
+import app.concurrent.Clock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Appends a snapshot of a BankMetrics to a CSV file every period of the given clock.
+ * Each snapshot is one row per figure for the bank, and optionally per car:
+ *
+ *     time,scope,metric,count,mean,p50,p95,p99,max
+ *
+ * Counters fill count only. On a SimulationClock the period is simulated time.
+ */
+public class MetricsReporter {
+
+    public static final String HEADER = "time,scope,metric,count,mean,p50,p95,p99,max";
+
+    private final BankMetrics metrics;
+    private final Clock clock;
+    private final Path file;
+    private final long periodMillis;
+    private final boolean perCar;
+    private volatile boolean stopped;
+
+    public MetricsReporter(BankMetrics metrics, Clock clock, Path file, long periodMillis, boolean perCar) {
+        this.metrics = metrics;
+        this.clock = clock;
+        this.file = file;
+        this.periodMillis = periodMillis;
+        this.perCar = perCar;
+    }
+
+    public void start() throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            Files.writeString(file, HEADER + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        clock.schedule(periodMillis, this::tick);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private void tick() {
+        if (stopped) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        clock.schedule(periodMillis, this::tick);
+    }
+
+    public void writeSnapshot() throws IOException {
+        long time = clock.now();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            String bank = "bank";
+            histogram(out, time, bank, "wait_ms", metrics.getWaitTimes());
+            histogram(out, time, bank, "ride_ms", metrics.getRideTimes());
+            histogram(out, time, bank, "queue_length", metrics.getQueueLengths());
+            histogram(out, time, bank, "stops_per_trip", metrics.getStopsPerTrip());
+            histogram(out, time, bank, "decision_ns", metrics.getDecisionNanos());
+            counter(out, time, bank, "hall_calls", metrics.getHallCalls());
+            counter(out, time, bank, "car_calls", metrics.getCarCalls());
+            counter(out, time, bank, "stops", metrics.getStops());
+            counter(out, time, bank, "floors_travelled", metrics.getFloorsTravelled());
+            counter(out, time, bank, "reversals", metrics.getReversals());
+
+            if (perCar) {
+                for (ElevatorMetrics car : metrics.getCars()) {
+                    String scope = "car" + car.getElevatorId();
+                    histogram(out, time, scope, "wait_ms", car.getWaitTimes());
+                    histogram(out, time, scope, "ride_ms", car.getRideTimes());
+                    histogram(out, time, scope, "queue_length", car.getQueueLengths());
+                    histogram(out, time, scope, "stops_per_trip", car.getStopsPerTrip());
+                    counter(out, time, scope, "stops", car.getStops());
+                    counter(out, time, scope, "floors_travelled", car.getFloorsTravelled());
+                    counter(out, time, scope, "reversals", car.getReversals());
+                }
+            }
+        }
+    }
+
+    private static void histogram(Writer out, long time, String scope, String metric, Histogram histogram) throws IOException {
+        // Locale.ROOT: a comma decimal separator would shift every later column
+        out.write(String.format(Locale.ROOT, "%d,%s,%s,%d,%.1f,%d,%d,%d,%d%n", time, scope, metric,
+                histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(0.50),
+                histogram.getValueAtPercentile(0.95), histogram.getValueAtPercentile(0.99), histogram.getMax()));
+    }
+
+    private static void counter(Writer out, long time, String scope, String metric, long value) throws IOException {
+        out.write(String.format(Locale.ROOT, "%d,%s,%s,%d,,,,,%n", time, scope, metric, value));
+    }
+}
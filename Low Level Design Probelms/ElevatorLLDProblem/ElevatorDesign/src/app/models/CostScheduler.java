@@ -0,0 +1,179 @@
+package app.models;
+
+import app.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dispatches each hall call to the car with the lowest estimated time to serve it,
+ * computed by Elevator.estimateTravel from the car's direction and pending stops.
+ * Queued stops add a load charge, since every new stop also delays the passengers
+ * already assigned to the car. A car already standing at the call floor is charged
+ * only a fraction of that: the passenger boards at once, where the alternative is a
+ * car that has to travel there. A car moving against the call has to finish its
+ * sweep and turn, which more calls can still postpone, and pays a fixed penalty.
+ *
+ * Only a few candidates are costed per call. Cars are indexed by zone (a band of
+ * floors) and direction, kept current through ElevatorListener.onStep, and the
+ * search widens zone by zone around the call floor: idle cars, cars already heading
+ * towards the call in its direction, and cars that will turn back towards it on the
+ * far side come first. With hundreds of cars a dispatch therefore touches a handful
+ * of them instead of the whole bank.
+ */
+public class CostScheduler implements ElevatorScheduler, ElevatorListener {
+
+    private static final int IDLE = 0;
+    private static final int UP = 1;
+    private static final int DOWN = 2;
+    // costs are in tenths of a floor of travel
+    private static final int FLOOR = 10;
+    // charged per stop the car already has queued
+    private static final int LOAD_WEIGHT = 3 * FLOOR;
+    // charged per queued stop instead when the car is standing at the call floor
+    private static final int STANDING_LOAD_WEIGHT = 2;
+    // charged to a car moving against the call's direction
+    private static final int REVERSAL_PENALTY = 20 * FLOOR;
+
+    private final int zoneFloors;
+    private final int maxCandidates;
+
+    private List<Elevator> indexed;
+    // per zone and direction class: indexes into the elevator list
+    private final List<BitSet[]> zones = new ArrayList<>();
+    private int[] zoneOf = new int[0];
+    private int[] directionOf = new int[0];
+    private final int[] candidates;
+    private int candidateCount;
+    private Set<Elevator> excluded = Collections.emptySet();
+
+    public CostScheduler() {
+        this(8, 8);
+    }
+
+    public CostScheduler(int zoneFloors, int maxCandidates) {
+        this.zoneFloors = zoneFloors;
+        this.maxCandidates = maxCandidates;
+        this.candidates = new int[maxCandidates];
+    }
+
+    @Override
+    public synchronized Elevator selectElevator(List<Elevator> elevators, ExternalRequest request) {
+        return selectElevator(elevators, request, Collections.emptySet());
+    }
+
+    // excluded cars are skipped while collecting, so the index stays keyed to the full list
+    @Override
+    public synchronized Elevator selectElevator(List<Elevator> elevators, ExternalRequest request, Set<Elevator> excluded) {
+        if (indexed != elevators || zoneOf.length != elevators.size()) {
+            rebuild(elevators);
+        }
+        this.excluded = excluded;
+
+        int zone = request.getFloor() / zoneFloors;
+        int approaching = request.getDirection() == Direction.UP ? UP : DOWN;
+        candidateCount = 0;
+        // the index only reaches the highest zone a car has been in, but a call may come from above it
+        int reach = Math.max(zone + 1, zones.size());
+        int reversing = approaching == UP ? DOWN : UP;
+        // nearest zones first: idle cars, cars on their way towards the call in its direction,
+        // and cars coming towards it the other way, which turn at or past the call floor
+        for (int distance = 0; candidateCount < maxCandidates && distance < reach; distance++) {
+            collect(zone - distance, IDLE);
+            if (distance > 0) {
+                collect(zone + distance, IDLE);
+            }
+            collect(approaching == UP ? zone - distance : zone + distance, approaching);
+            collect(approaching == UP ? zone + distance : zone - distance, reversing);
+        }
+        // every car is moving away from the call: take the nearest ones in any direction
+        for (int distance = 0; candidateCount == 0 && distance < reach; distance++) {
+            for (int direction = IDLE; direction <= DOWN; direction++) {
+                collect(zone - distance, direction);
+                collect(zone + distance, direction);
+            }
+        }
+
+        Elevator best = null;
+        int bestCost = Integer.MAX_VALUE;
+        for (int i = 0; i < candidateCount; i++) {
+            Elevator elevator = elevators.get(candidates[i]);
+            int travel = elevator.estimateTravel(request.getFloor(), request.getDirection());
+            int cost = FLOOR * travel
+                    + (travel == 0 ? STANDING_LOAD_WEIGHT : LOAD_WEIGHT) * elevator.getPendingStops();
+            Direction direction = elevator.getDirection();
+            if (direction != null && direction != request.getDirection()) {
+                cost += REVERSAL_PENALTY;
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = elevator;
+            }
+        }
+        if (best == null && !excluded.isEmpty()) {
+            // every car is excluded
+            return selectElevator(elevators, request, Collections.emptySet());
+        }
+        return best != null ? best : elevators.get(0);
+    }
+
+    private void collect(int zone, int direction) {
+        if (zone < 0 || zone >= zones.size()) {
+            return;
+        }
+        BitSet cars = zones.get(zone)[direction];
+        for (int i = cars.nextSetBit(0); i >= 0 && candidateCount < maxCandidates; i = cars.nextSetBit(i + 1)) {
+            if (!excluded.contains(indexed.get(i))) {
+                candidates[candidateCount++] = i;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onStep(Elevator elevator) {
+        if (indexed == null) {
+            return;
+        }
+        int index = elevator.getId() - 1;
+        if (index < zoneOf.length && indexed.get(index) == elevator) {
+            move(index, elevator);
+        }
+    }
+
+    @Override
+    public void onArrival(Elevator elevator, int floor) {
+    }
+
+    private void rebuild(List<Elevator> elevators) {
+        indexed = elevators;
+        zones.clear();
+        zoneOf = new int[elevators.size()];
+        directionOf = new int[elevators.size()];
+        for (int i = 0; i < elevators.size(); i++) {
+            zoneOf[i] = -1;
+            move(i, elevators.get(i));
+        }
+    }
+
+    private void move(int index, Elevator elevator) {
+        int zone = elevator.getCurrentFloor() / zoneFloors;
+        Direction direction = elevator.getDirection();
+        int directionClass = direction == null ? IDLE : direction == Direction.UP ? UP : DOWN;
+        if (zone == zoneOf[index] && directionClass == directionOf[index]) {
+            return;
+        }
+
+        if (zoneOf[index] >= 0) {
+            zones.get(zoneOf[index])[directionOf[index]].clear(index);
+        }
+        while (zones.size() <= zone) {
+            zones.add(new BitSet[]{new BitSet(), new BitSet(), new BitSet()});
+        }
+        zones.get(zone)[directionClass].set(index);
+        zoneOf[index] = zone;
+        directionOf[index] = directionClass;
+    }
+}
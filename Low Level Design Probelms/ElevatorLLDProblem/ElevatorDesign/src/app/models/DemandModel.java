@@ -0,0 +1,85 @@
+package app.models;
+
+/**
+ * Hall calls per floor and time of day, learnt online in constant memory.
+ *
+ * The day is cut into fixed slots, each holding one count per floor. A slot's counts
+ * are multiplied by dayDecay once per day that passes before it is next used, so
+ * yesterday weighs more than last week and a changed pattern is picked up in a few
+ * days. Memory is slots * floors doubles whatever the length of the request stream.
+ */
+public class DemandModel {
+    public static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    public static final int DEFAULT_SLOTS = 96;
+    public static final double DEFAULT_DAY_DECAY = 0.7;
+
+    private final int floors;
+    private final int slots;
+    private final long slotMillis;
+    private final double dayDecay;
+    private final double[][] counts;
+    // day each slot was last decayed to
+    private final long[] slotDays;
+
+    public DemandModel(int floors) {
+        this(floors, DEFAULT_SLOTS, DEFAULT_DAY_DECAY);
+    }
+
+    public DemandModel(int floors, int slots, double dayDecay) {
+        this.floors = floors;
+        this.slots = slots;
+        this.slotMillis = DAY_MILLIS / slots;
+        this.dayDecay = dayDecay;
+        this.counts = new double[slots][floors];
+        this.slotDays = new long[slots];
+    }
+
+    public synchronized void record(int floor, long timeMillis) {
+        if (floor < 0 || floor >= floors) {
+            return;
+        }
+        int slot = slot(timeMillis);
+        long day = Math.floorDiv(timeMillis, DAY_MILLIS);
+        if (slotDays[slot] < day) {
+            double decay = decay(slot, day);
+            double[] row = counts[slot];
+            for (int i = 0; i < floors; i++) {
+                row[i] *= decay;
+            }
+            slotDays[slot] = day;
+        }
+        counts[slot][floor]++;
+    }
+
+    /**
+     * Fills demand with the expected calls per floor around timeMillis: the current
+     * slot, the next one as seen on earlier days, and half of the one just ended,
+     * which is all there is to go on during the first day.
+     */
+    public synchronized void predict(long timeMillis, double[] demand) {
+        long day = Math.floorDiv(timeMillis, DAY_MILLIS);
+        int current = slot(timeMillis);
+        int next = slot(timeMillis + slotMillis);
+        int previous = slot(timeMillis - slotMillis);
+        double currentWeight = decay(current, day);
+        double nextWeight = decay(next, day);
+        double previousWeight = 0.5 * decay(previous, day);
+        for (int floor = 0; floor < floors; floor++) {
+            demand[floor] = currentWeight * counts[current][floor] + nextWeight * counts[next][floor]
+                    + previousWeight * counts[previous][floor];
+        }
+    }
+
+    public int getFloors() {
+        return floors;
+    }
+
+    private int slot(long timeMillis) {
+        return (int) (Math.floorMod(timeMillis, DAY_MILLIS) / slotMillis);
+    }
+
+    // weight of a slot's counts on day, for the days since they were last decayed
+    private double decay(int slot, long day) {
+        return slotDays[slot] < day ? Math.pow(dayDecay, day - slotDays[slot]) : 1;
+    }
+}
@@ -0,0 +1,162 @@
+package app.models;
+
+import app.concurrent.Clock;
+import app.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Destination dispatch: riders enter their target floor at the hall and are told
+ * which car to take.
+ *
+ * Calls are collected for a batching window and then assigned together, sorted by
+ * origin, direction and destination so riders bound for neighbouring floors end up
+ * side by side. A car assigned to pick riders up at a floor forms a group; a rider
+ * joins an open group at the same floor and direction if it has room, preferring one
+ * that already stops at the rider's destination, and a group never takes more than
+ * capacity riders or maxStops distinct destinations. Only when no group fits does the
+ * controller's scheduler pick a new car, avoiding the cars that already have a group
+ * there. Fewer stops per trip is what lifts up-peak throughput.
+ *
+ * When the assigned car stops at the group's floor and serves the group's direction,
+ * the dispatcher boards the riders and registers their destinations as car calls, so
+ * riders never press a car button.
+ */
+public class DestinationDispatcher implements ElevatorListener {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 1000;
+    public static final int DEFAULT_CAPACITY = 12;
+    public static final int DEFAULT_MAX_STOPS = 4;
+
+    private static final Comparator<DestinationRequest> GROUP_ORDER =
+            Comparator.comparingInt((DestinationRequest request) -> request.getFloor())
+                    .thenComparing(request -> request.getDirection())
+                    .thenComparingInt(request -> request.getDestination());
+
+    private final ElevatorController controller;
+    private final Clock clock;
+    private final long windowMillis;
+    private final int capacity;
+    private final int maxStops;
+    private final List<DestinationListener> listeners = new CopyOnWriteArrayList<>();
+
+    private List<DestinationRequest> batch = new ArrayList<>();
+    // groups waiting for their car, by origin floor and direction, and by car
+    private final Map<Integer, List<Group>> openGroups = new HashMap<>();
+    private final Map<Elevator, List<Group>> carGroups = new HashMap<>();
+
+    public DestinationDispatcher(ElevatorController controller, Clock clock) {
+        this(controller, clock, DEFAULT_WINDOW_MILLIS, DEFAULT_CAPACITY, DEFAULT_MAX_STOPS);
+    }
+
+    public DestinationDispatcher(ElevatorController controller, Clock clock, long windowMillis, int capacity, int maxStops) {
+        this.controller = controller;
+        this.clock = clock;
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        this.maxStops = maxStops;
+        controller.addListener(this);
+    }
+
+    public void addListener(DestinationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queues the call; it is assigned to a car when the current batching window closes.
+     */
+    public synchronized void request(DestinationRequest request) {
+        batch.add(request);
+        if (batch.size() == 1) {
+            clock.schedule(windowMillis, this::assignBatch);
+        }
+    }
+
+    private synchronized void assignBatch() {
+        List<DestinationRequest> calls = batch;
+        batch = new ArrayList<>();
+        calls.sort(GROUP_ORDER);
+
+        for (DestinationRequest call : calls) {
+            List<Group> open = openGroups.computeIfAbsent(key(call), key -> new ArrayList<>());
+            Group group = findGroup(open, call.getDestination());
+            if (group == null) {
+                Set<Elevator> taken = new HashSet<>();
+                for (Group other : open) {
+                    taken.add(other.car);
+                }
+                group = new Group(controller.handleRequest(call, taken), call.getFloor());
+                open.add(group);
+                carGroups.computeIfAbsent(group.car, car -> new ArrayList<>()).add(group);
+            }
+            group.riders.add(call);
+            group.stops.set(call.getDestination());
+            for (DestinationListener listener : listeners) {
+                listener.onAssigned(call, group.car);
+            }
+        }
+    }
+
+    private Group findGroup(List<Group> open, int destination) {
+        Group withRoom = null;
+        for (Group group : open) {
+            if (group.riders.size() >= capacity) {
+                continue;
+            }
+            if (group.stops.get(destination)) {
+                return group;
+            }
+            if (withRoom == null && group.stops.cardinality() < maxStops) {
+                withRoom = group;
+            }
+        }
+        return withRoom;
+    }
+
+    @Override
+    public synchronized void onArrival(Elevator elevator, int floor) {
+        List<Group> groups = carGroups.get(elevator);
+        if (groups == null) {
+            return;
+        }
+        for (int i = groups.size() - 1; i >= 0; i--) {
+            Group group = groups.get(i);
+            // a car passing the floor the other way still owes the group its stop
+            if (group.floor != floor || elevator.hasStop(floor, group.riders.get(0).getDirection())) {
+                continue;
+            }
+            groups.remove(i);
+            openGroups.get(key(group.riders.get(0))).remove(group);
+            for (DestinationRequest rider : group.riders) {
+                controller.handleInternalRequest(elevator.getId(), new InternalRequest(rider.getDestination()));
+                for (DestinationListener listener : listeners) {
+                    listener.onBoarded(rider, elevator);
+                }
+            }
+        }
+    }
+
+    private static int key(DestinationRequest request) {
+        return request.getFloor() * 2 + (request.getDirection() == Direction.UP ? 0 : 1);
+    }
+
+    private static final class Group {
+        private final Elevator car;
+        private final int floor;
+        private final List<DestinationRequest> riders = new ArrayList<>();
+        private final BitSet stops = new BitSet();
+
+        private Group(Elevator car, int floor) {
+            this.car = car;
+            this.floor = floor;
+        }
+    }
+}
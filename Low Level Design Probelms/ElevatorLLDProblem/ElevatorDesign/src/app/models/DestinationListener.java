@@ -0,0 +1,12 @@
+package app.models;
+
+/**
+ * Notified when a DestinationDispatcher assigns a rider to a car (what the hall
+ * display shows), and when the rider boards it.
+ */
+public interface DestinationListener {
+    void onAssigned(DestinationRequest request, Elevator elevator);
+
+    default void onBoarded(DestinationRequest request, Elevator elevator) {
+    }
+}
@@ -0,0 +1,24 @@
+package app.models;
+
+import app.enums.Direction;
+
+/**
+ * Hall call from a destination-dispatch keypad: the rider enters the target floor
+ * before boarding, so the direction follows from the two floors.
+ */
+public class DestinationRequest extends ExternalRequest {
+
+    private final int destination;
+
+    public DestinationRequest(int floor, int destination) {
+        super(floor, destination > floor ? Direction.UP : Direction.DOWN);
+        if (destination == floor) {
+            throw new IllegalArgumentException("Destination equals origin floor " + floor);
+        }
+        this.destination = destination;
+    }
+
+    public int getDestination() {
+        return destination;
+    }
+}
@@ -1,33 +1,69 @@
 package app.models;
 
+import app.concurrent.MpscLongQueue;
 import app.enums.Direction;
+import app.metrics.ElevatorMetrics;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 public class Elevator {
+    public static final long FLOOR_TRAVEL_MILLIS = 1000;
+    private static final int NO_STOP = -1;
+    // floors of travel a stop is estimated to cost (doors, boarding)
+    private static final int STOP_COST_FLOORS = 1;
+    // steps a car stands at a stop with its doors open, matching the estimate above
+    private static final int DOOR_OPEN_STEPS = STOP_COST_FLOORS;
+    // highest floor the intake encoding can carry
+    public static final int MAX_FLOOR = (1 << 15) - 1;
+    private static final long CAR_CALL = 1 << 16;
+    private static final long PARK = 1 << 17;
+    private static final long NO_CALL = -1;
+
     private int id;
     private int currentFloor;
     private ElevatorState state;
-    //min heap
-    private PriorityQueue<Integer> upRequests;
-    //max heap
-    private PriorityQueue<Integer> downRequests;
+    // pending stops by floor, split by the direction the passenger wants to travel;
+    // written under the lock, after draining the intake queue
+    private final BitSet upStops;
+    private final BitSet downStops;
+    // requests not yet seen by the processing side, encoded as
+    // time << 18 | PARK | CAR_CALL | floor << 1 | (DOWN ? 1 : 0)
+    private final MpscLongQueue intake = new MpscLongQueue();
+    private volatile Thread processor;
     private List<Integer> currentJobs;
     private volatile boolean processing = false;
+    // simulation mode: whether a step event is pending on the controller's clock
+    private final AtomicBoolean stepScheduled = new AtomicBoolean();
+    private volatile boolean verbose;
+    private int doorSteps;
+    private volatile ElevatorMetrics metrics;
+    // when the pending hall and car calls were made, by floor * 2 + direction
+    private long[] hallCallTimes = new long[0];
+    private long[] carCallTimes = new long[0];
+    private int tripStops;
+    // where an idle car was sent to wait; dropped as soon as it has a real stop
+    private int parkFloor = NO_STOP;
+    private final List<ElevatorListener> listeners = new CopyOnWriteArrayList<>();
 
     public Elevator(int id) {
         this.id = id;
         this.currentFloor = 0;
         this.state = new IdleState();
-        this.upRequests = new PriorityQueue<>();
-        this.downRequests = new PriorityQueue<>(Collections.reverseOrder());
+        this.upStops = new BitSet();
+        this.downStops = new BitSet();
         this.currentJobs = new ArrayList<>();
     }
 
+    public int getId() {
+        return id;
+    }
+
     public int getCurrentFloor() {
         return currentFloor;
     }
@@ -44,20 +80,122 @@ public class Elevator {
         this.state = state;
     }
 
-    // Thread-safe request addition
+    /**
+     * Hall call. Lock-free: the request is queued and folded into the stop sets at the
+     * car's next step, or earlier when a scheduler reads them, so callers never wait
+     * for a moving car.
+     */
     public void addRequest(int floor, Direction direction) {
-        synchronized (this) {
-            if (direction == Direction.UP) {
-                upRequests.add(floor);
-                //Collections.sort(upRequests);
+        enqueue(floor, direction, false);
+    }
+
+    /**
+     * Car call from a passenger inside; same as addRequest apart from the metrics.
+     */
+    public void addCarCall(int floor, Direction direction) {
+        enqueue(floor, direction, true);
+    }
+
+    /**
+     * Sends the car to wait at floor. Unlike a call it is not a stop: the car does not
+     * open its doors there, and any hall or car call it gets replaces the trip.
+     */
+    public void park(int floor) {
+        checkFloor(floor);
+        offer(PARK | floor << 1);
+    }
+
+    private void enqueue(int floor, Direction direction, boolean carCall) {
+        checkFloor(floor);
+        ElevatorMetrics metrics = this.metrics;
+        long time = 0;
+        if (metrics != null) {
+            time = metrics.now();
+            metrics.recordCall(carCall);
+        }
+        offer(time << 18 | (carCall ? CAR_CALL : 0) | floor << 1 | (direction == Direction.UP ? 0 : 1));
+    }
+
+    private static void checkFloor(int floor) {
+        if (floor < 0 || floor > MAX_FLOOR) {
+            throw new IllegalArgumentException("Floor out of range: " + floor);
+        }
+    }
+
+    private void offer(long request) {
+        intake.offer(request);
+        Thread thread = processor;
+        if (thread != null) {
+            LockSupport.unpark(thread); // Notify processing thread
+        }
+    }
+
+    // called with the lock held, which makes every caller the queue's single consumer;
+    // readers drain too, so schedulers see calls queued since the car's last step
+    private void drainIntake() {
+        long request;
+        while ((request = intake.poll()) != MpscLongQueue.EMPTY) {
+            int slot = (int) (request & 0xFFFF);
+            if ((request & PARK) != 0) {
+                parkFloor = slot >> 1;
+                continue;
+            }
+            if ((slot & 1) == 0) {
+                upStops.set(slot >> 1);
             } else {
-                downRequests.add(floor);
-                //Collections.sort(downRequests, Collections.reverseOrder());
+                downStops.set(slot >> 1);
+            }
+            if (metrics != null) {
+                noteCall(slot, (request & CAR_CALL) != 0, request >>> 18);
             }
-            notifyAll(); // Notify processing thread
         }
     }
 
+    // keeps the earliest time of a call until the car stops for it
+    private void noteCall(int slot, boolean carCall, long time) {
+        if (slot >= hallCallTimes.length) {
+            int length = Math.max(slot + 1, hallCallTimes.length * 2);
+            hallCallTimes = grow(hallCallTimes, length);
+            carCallTimes = grow(carCallTimes, length);
+        }
+        long[] times = carCall ? carCallTimes : hallCallTimes;
+        if (times[slot] == NO_CALL) {
+            times[slot] = time;
+        }
+    }
+
+    private static long[] grow(long[] times, int length) {
+        int old = times.length;
+        times = Arrays.copyOf(times, length);
+        Arrays.fill(times, old, length, NO_CALL);
+        return times;
+    }
+
+    // clears a stop at the current floor; slot direction is 0 for UP, 1 for DOWN
+    private void serve(BitSet stops, int direction) {
+        if (!stops.get(currentFloor)) {
+            return;
+        }
+        stops.clear(currentFloor);
+        int slot = currentFloor * 2 + direction;
+        if (metrics != null && slot < hallCallTimes.length) {
+            long now = metrics.now();
+            if (hallCallTimes[slot] != NO_CALL) {
+                metrics.recordWait(now - hallCallTimes[slot]);
+                hallCallTimes[slot] = NO_CALL;
+            }
+            if (carCallTimes[slot] != NO_CALL) {
+                metrics.recordRide(now - carCallTimes[slot]);
+                carCallTimes[slot] = NO_CALL;
+            }
+        }
+    }
+
+    public synchronized boolean hasStop(int floor, Direction direction) {
+        drainIntake();
+        return direction == Direction.UP ? upStops.get(floor) : downStops.get(floor);
+    }
+
     public void move(int destinationFloor) {
         System.out.println("Elevator " + id + " moving from " + currentFloor + " to " + destinationFloor);
         // Simulate movement
@@ -68,12 +206,10 @@ public class Elevator {
                 } else {
                     currentFloor--;
                 }
-
-                //checkIntermediateRequests();
             }
             System.out.println("Elevator " + id + " at floor " + currentFloor);
             try {
-                Thread.sleep(1000); // Simulate time between floors
+                Thread.sleep(FLOOR_TRAVEL_MILLIS); // Simulate time between floors
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 return;
@@ -84,53 +220,27 @@ public class Elevator {
     }
 
     /**
-     * we can use disk seek algorithm concept here - LOOK Algorithms
-     * watch - shrayansh jain elevator lld video
-     *
+     * LOOK algorithm (as in disk seek scheduling): the elevator keeps its direction,
+     * stopping at every pending floor on the way, and only reverses once nothing is
+     * left ahead of it. The thread sleeps between steps without holding the lock,
+     * so requests added mid-sweep are picked up at the next floor.
      */
     public void startProcessing() {
+        verbose = true;
         Thread processorThread = new Thread(() -> {
             while (true) {
                 try {
-                    synchronized (this) {
-                        // Wait if no requests
-                        while (upRequests.isEmpty() && downRequests.isEmpty()) {
-                            wait();
-                        }
-
-                        processing = true;
-
-                        /*
-                        // Process up requests first
-                        if (!upRequests.isEmpty()) {
-                            int nextFloor = upRequests.poll();
-                            state.move(this, nextFloor);
-                        }
-                        // Then process down requests
-                        else if (!downRequests.isEmpty()) {
-                            int nextFloor = downRequests.poll();
-                            state.move(this, nextFloor);
-                        }
-                         */
-
-                        // Process requests in current direction
-                        if (state instanceof MovingUpState) {
-                            processUpRequests();
-                        }
-                        else if (state instanceof MovingDownState) {
-                            processDownRequests();
-                        }
-                        else { // Idle - decide direction based on requests
-                            if (!upRequests.isEmpty()) {
-                                state = new MovingUpState();
-                                processUpRequests();
-                            }
-                            else if (!downRequests.isEmpty()) {
-                                state = new MovingDownState();
-                                processDownRequests();
-                            }
+                    // Wait if no requests; addRequest unparks this thread
+                    while (!hasRequests()) {
+                        LockSupport.park(this);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
                         }
                     }
+                    processing = true;
+                    while (step()) {
+                        Thread.sleep(FLOOR_TRAVEL_MILLIS); // Simulate time between floors
+                    }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -140,51 +250,285 @@ public class Elevator {
             }
         });
         processorThread.setDaemon(true);
+        processor = processorThread;
         processorThread.start();
     }
 
-    private void processUpRequests() {
-        // Find next appropriate UP request
-        Integer nextFloor = upRequests.poll();
+    public void stop() {
+        state.stop(this);
+    }
+
+    // ends the thread started by startProcessing, if any
+    public void stopProcessing() {
+        Thread thread = processor;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public void addListener(ElevatorListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * UP or DOWN while sweeping, null when idle.
+     */
+    public synchronized Direction getDirection() {
+        if (state instanceof MovingUpState) {
+            return Direction.UP;
+        }
+        return state instanceof MovingDownState ? Direction.DOWN : null;
+    }
+
+    public synchronized int getPendingStops() {
+        drainIntake();
+        return upStops.cardinality() + downStops.cardinality();
+    }
+
+    /**
+     * Estimated floors of travel before this car would serve a new call at floor for
+     * direction, following its LOOK sweep through the stops it already has. Each stop
+     * on the way adds STOP_COST_FLOORS.
+     */
+    public synchronized int estimateTravel(int floor, Direction direction) {
+        drainIntake();
+        Direction current = getDirection();
+        if (current == null) {
+            current = floor >= currentFloor ? Direction.UP : Direction.DOWN;
+        }
+        int top = Math.max(currentFloor, Math.max(upStops.length(), downStops.length()) - 1);
+        int bottom = Math.min(currentFloor, Math.min(lowest(upStops), lowest(downStops)));
+
+        if (current == Direction.UP) {
+            if (direction == Direction.UP && floor >= currentFloor) {
+                return floor - currentFloor + STOP_COST_FLOORS * count(upStops, currentFloor, floor);
+            }
+            if (direction == Direction.DOWN) {
+                top = Math.max(top, floor);
+                return (top - currentFloor) + (top - floor) + STOP_COST_FLOORS
+                        * (count(upStops, currentFloor, top + 1) + count(downStops, floor + 1, top + 1));
+            }
+            bottom = Math.min(bottom, floor);
+            return (top - currentFloor) + (top - bottom) + (floor - bottom) + STOP_COST_FLOORS * getPendingStops();
+        }
+
+        if (direction == Direction.DOWN && floor <= currentFloor) {
+            return currentFloor - floor + STOP_COST_FLOORS * count(downStops, floor + 1, currentFloor + 1);
+        }
+        if (direction == Direction.UP) {
+            bottom = Math.min(bottom, floor);
+            return (currentFloor - bottom) + (floor - bottom) + STOP_COST_FLOORS
+                    * (count(downStops, bottom, currentFloor + 1) + count(upStops, bottom, floor));
+        }
+        top = Math.max(top, floor);
+        return (currentFloor - bottom) + (top - bottom) + (top - floor) + STOP_COST_FLOORS * getPendingStops();
+    }
+
+    private static int lowest(BitSet stops) {
+        int floor = stops.nextSetBit(0);
+        return floor < 0 ? Integer.MAX_VALUE : floor;
+    }
+
+    // set bits in [from, to)
+    private static int count(BitSet stops, int from, int to) {
+        int count = 0;
+        for (int floor = stops.nextSetBit(Math.max(0, from)); floor >= 0 && floor < to; floor = stops.nextSetBit(floor + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Set by the controller before the car takes requests.
+     */
+    public void setMetrics(ElevatorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ElevatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean hasRequests() {
+        if (!intake.isEmpty()) {
+            return true;
+        }
+        synchronized (this) {
+            return hasStops() || parkFloor != NO_STOP;
+        }
+    }
+
+    private boolean hasStops() {
+        return !upStops.isEmpty() || !downStops.isEmpty();
+    }
 
-        if (nextFloor != null) {
-            move(nextFloor);
-            upRequests.remove(nextFloor);
-        } else {
-            // No more UP requests in current direction - switch to DOWN if needed
-            if (!downRequests.isEmpty()) {
-                state = new MovingDownState();
+    /**
+     * Advances the elevator by one floor towards its next LOOK stop, or stops at the
+     * current floor if it is one. Called once per floor travel time, by the processing
+     * thread or by a simulation clock; returns false when there is nothing left to do.
+     */
+    public boolean step() {
+        int stop;
+        int arrivedAt;
+        synchronized (this) {
+            drainIntake();
+            if (metrics != null) {
+                metrics.recordQueueLength(upStops.cardinality() + downStops.cardinality());
+            }
+            if (doorSteps > 0) {
+                doorSteps--;
+                stop = currentFloor;
+                arrivedAt = NO_STOP;
+            } else if ((stop = nextStop()) == NO_STOP) {
+                state = new IdleState();
+                arrivedAt = NO_STOP;
+                if (tripStops > 0 && metrics != null) {
+                    metrics.recordTrip(tripStops);
+                }
+                tripStops = 0;
+            } else {
+                if (currentFloor != stop) {
+                    currentFloor += currentFloor < stop ? 1 : -1;
+                    if (metrics != null) {
+                        metrics.recordFloorTravelled();
+                    }
+                    if (verbose) {
+                        System.out.println("Elevator " + id + " at floor " + currentFloor);
+                    }
+                }
+                if (currentFloor != stop) {
+                    arrivedAt = NO_STOP;
+                } else if (stop == parkFloor) {
+                    // parked: no doors, and the next step finds the car idle
+                    parkFloor = NO_STOP;
+                    arrivedAt = NO_STOP;
+                } else {
+                    arrivedAt = arrive();
+                }
+            }
+        }
+
+        // listeners run outside the lock, so they may call back into schedulers and controllers
+        if (arrivedAt != NO_STOP) {
+            for (ElevatorListener listener : listeners) {
+                listener.onArrival(this, arrivedAt);
             }
         }
+        for (ElevatorListener listener : listeners) {
+            listener.onStep(this);
+        }
+        return stop != NO_STOP;
     }
 
-    private void processDownRequests() {
-        // Find next appropriate DOWN request
-        Integer nextFloor = downRequests.poll();
+    // nearest pending floor in the travel direction, turning around when none is left
+    private int nextStop() {
+        if (!hasStops()) {
+            return parkFloor == NO_STOP ? NO_STOP : headFor(parkFloor);
+        }
+        parkFloor = NO_STOP;
+        if (state instanceof MovingDownState) {
+            int stop = stopBelow();
+            if (stop != NO_STOP) {
+                return stop;
+            }
+            state = new MovingUpState();
+            recordReversal();
+            return stopAbove();
+        }
 
-        if (nextFloor != null) {
-            move(nextFloor);
-        } else {
-            // No more DOWN requests in current direction - switch to UP if needed
-            if (!upRequests.isEmpty()) {
+        // moving up or idle; idle elevators prefer going up, like the original processing loop
+        int stop = stopAbove();
+        if (stop != NO_STOP) {
+            if (!(state instanceof MovingUpState) && stop != currentFloor) {
                 state = new MovingUpState();
             }
+            return stop;
         }
+        if (state instanceof MovingUpState) {
+            recordReversal();
+        }
+        state = new MovingDownState();
+        return stopBelow();
     }
 
-    private void checkIntermediateRequests() {
-        // Check if we should stop at current floor for any requests
-        if (state instanceof MovingUpState && upRequests.contains(currentFloor)) {
-            System.out.println("Stopping at floor " + currentFloor + " for UP request");
-            upRequests.remove(Integer.valueOf(currentFloor));
+    private int headFor(int floor) {
+        if (floor > currentFloor) {
+            state = new MovingUpState();
+        } else if (floor < currentFloor) {
+            state = new MovingDownState();
         }
-        else if (state instanceof MovingDownState && downRequests.contains(currentFloor)) {
-            System.out.println("Stopping at floor " + currentFloor + " for DOWN request");
-            downRequests.remove(Integer.valueOf(currentFloor));
+        return floor;
+    }
+
+    private void recordReversal() {
+        if (metrics != null) {
+            metrics.recordReversal();
         }
     }
 
-    public void stop() {
-        state.stop(this);
+    // next UP stop at or above the car, else the highest DOWN stop above it (where the sweep turns)
+    private int stopAbove() {
+        int up = upStops.nextSetBit(currentFloor);
+        if (up >= 0) {
+            return up;
+        }
+        int highestDown = downStops.length() - 1;
+        return highestDown >= currentFloor ? highestDown : NO_STOP;
+    }
+
+    private int stopBelow() {
+        int down = downStops.previousSetBit(currentFloor);
+        if (down >= 0) {
+            return down;
+        }
+        int lowestUp = upStops.nextSetBit(0);
+        return lowestUp >= 0 && lowestUp <= currentFloor ? lowestUp : NO_STOP;
+    }
+
+    private int arrive() {
+        boolean movingUp = state instanceof MovingUpState;
+        boolean movingDown = state instanceof MovingDownState;
+
+        if (!movingDown) {
+            serve(upStops, 0);
+        }
+        if (!movingUp) {
+            serve(downStops, 1);
+        }
+        // at the end of a sweep the passengers waiting to go the other way board too
+        if (movingUp && upStops.nextSetBit(currentFloor + 1) < 0 && downStops.length() <= currentFloor + 1) {
+            serve(downStops, 1);
+        } else if (movingDown && downStops.previousSetBit(currentFloor - 1) < 0
+                && (upStops.isEmpty() || upStops.nextSetBit(0) >= currentFloor)) {
+            serve(upStops, 0);
+        }
+
+        tripStops++;
+        if (metrics != null) {
+            metrics.recordStop();
+        }
+        doorSteps = DOOR_OPEN_STEPS;
+        if (verbose) {
+            System.out.println("Elevator " + id + " stopped at floor " + currentFloor);
+        }
+        if (!hasStops()) {
+            state.stop(this);
+        }
+        return currentFloor;
+    }
+
+    /**
+     * Marks a step event as pending; returns false if one already was.
+     */
+    boolean scheduleStep() {
+        return stepScheduled.compareAndSet(false, true);
+    }
+
+    void stepFinished() {
+        stepScheduled.set(false);
     }
 }
@@ -1,39 +1,152 @@
 package app.models;
 
+import app.concurrent.Clock;
 import app.enums.Direction;
+import app.metrics.BankMetrics;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ElevatorController {
+    // simulated travel time between two adjacent floors, as in Elevator.move
+    public static final long FLOOR_TRAVEL_MILLIS = Elevator.FLOOR_TRAVEL_MILLIS;
+
     private final ElevatorScheduler scheduler;
     private final List<Elevator> elevators;
+    // null when every elevator runs its own processing thread
+    private final Clock clock;
+    private final BankMetrics metrics;
+    private final List<RequestListener> requestListeners = new CopyOnWriteArrayList<>();
 
     public ElevatorController(int numElevators, ElevatorScheduler scheduler) {
+        this(numElevators, scheduler, null);
+    }
+
+    /**
+     * With a clock, elevators get no threads: each one advances a floor per
+     * FLOOR_TRAVEL_MILLIS through events scheduled on the clock.
+     */
+    public ElevatorController(int numElevators, ElevatorScheduler scheduler, Clock clock) {
         this.scheduler = scheduler;
         this.elevators = new ArrayList<>();
+        this.clock = clock;
+        this.metrics = new BankMetrics(clock != null ? clock::now : System::currentTimeMillis);
 
         for (int i = 0; i < numElevators; i++) {
             Elevator elevator = new Elevator(i + 1);
-            elevator.startProcessing();
+            elevator.setMetrics(metrics.addCar(i + 1));
+            if (scheduler instanceof ElevatorListener) {
+                // schedulers that index cars by position follow them through their steps
+                elevator.addListener((ElevatorListener) scheduler);
+            }
+            if (clock == null) {
+                elevator.startProcessing();
+            }
             elevators.add(elevator);
         }
     }
 
-    public void handleRequest(ExternalRequest request) {
-        Elevator elevator = scheduler.selectElevator(elevators, request);
+    public Elevator handleRequest(ExternalRequest request) {
+        return handleRequest(request, Collections.emptySet());
+    }
+
+    /**
+     * Serves the hall call with a car outside excluded, if the scheduler finds one.
+     */
+    public Elevator handleRequest(ExternalRequest request, Set<Elevator> excluded) {
+        long start = System.nanoTime();
+        Elevator elevator = scheduler.selectElevator(elevators, request, excluded);
+        metrics.recordDecision(System.nanoTime() - start);
         elevator.addRequest(request.getFloor(), request.getDirection());
+        wake(elevator);
         //new Thread(() -> elevator.processRequests()).start();
+        for (RequestListener listener : requestListeners) {
+            listener.onRequest(request, elevator);
+        }
+        return elevator;
     }
 
     public void handleInternalRequest(int elevatorId, InternalRequest request) {
         Elevator elevator = elevators.get(elevatorId - 1);
         Direction direction = elevator.getCurrentFloor() < request.getFloor() ? Direction.UP : Direction.DOWN;
-        elevator.addRequest(request.getFloor(), direction);
+        elevator.addCarCall(request.getFloor(), direction);
+        wake(elevator);
         //new Thread(() -> elevator.processRequests()).start();
     }
 
+    /**
+     * Sends an idle car to wait at floor; see Elevator.park.
+     */
+    public void park(Elevator elevator, int floor) {
+        elevator.park(floor);
+        wake(elevator);
+    }
+
+    /**
+     * Parks idle cars where calls are expected, as learnt from the calls this
+     * controller handles from now on.
+     */
+    public PredictiveParking enableParking(int floors) {
+        PredictiveParking parking = new PredictiveParking(this, new DemandModel(floors));
+        addListener(parking);
+        addRequestListener(parking);
+        return parking;
+    }
+
     public List<Elevator> getElevators() {
         return elevators;
     }
+
+    public BankMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops the elevators' processing threads. A clock passed to the constructor
+     * belongs to the caller and is left running.
+     */
+    public void shutdown() {
+        for (Elevator elevator : elevators) {
+            elevator.stopProcessing();
+        }
+    }
+
+    public void addListener(ElevatorListener listener) {
+        for (Elevator elevator : elevators) {
+            elevator.addListener(listener);
+        }
+    }
+
+    public void addRequestListener(RequestListener listener) {
+        requestListeners.add(listener);
+    }
+
+    // starts stepping an elevator that was waiting for work
+    private void wake(Elevator elevator) {
+        if (clock != null && elevator.scheduleStep()) {
+            clock.schedule(FLOOR_TRAVEL_MILLIS, () -> step(elevator));
+        }
+    }
+
+    private void step(Elevator elevator) {
+        boolean moving = false;
+        try {
+            moving = elevator.step();
+        } finally {
+            if (moving) {
+                clock.schedule(FLOOR_TRAVEL_MILLIS, () -> step(elevator));
+            } else {
+                // also reached when the step or a listener threw, so the car is not left
+                // marked as scheduled with nothing to step it
+                elevator.stepFinished();
+                // a request may have arrived between the last step and stepFinished
+                if (elevator.hasRequests()) {
+                    wake(elevator);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package app.models;
+
+/**
+ * Notified when an elevator stops at a requested floor, and after every step
+ * (a floor travelled or a change of direction).
+ */
+public interface ElevatorListener {
+    void onArrival(Elevator elevator, int floor);
+
+    default void onStep(Elevator elevator) {
+    }
+}
@@ -1,7 +1,26 @@
 package app.models;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public interface ElevatorScheduler {
     Elevator selectElevator(List<Elevator> elevators, ExternalRequest request);
+
+    /**
+     * Same choice, but avoiding the excluded cars unless every car is excluded.
+     * Batch dispatchers use it to spread one batch of calls over several cars.
+     */
+    default Elevator selectElevator(List<Elevator> elevators, ExternalRequest request, Set<Elevator> excluded) {
+        if (excluded.isEmpty()) {
+            return selectElevator(elevators, request);
+        }
+        List<Elevator> remaining = new ArrayList<>();
+        for (Elevator elevator : elevators) {
+            if (!excluded.contains(elevator)) {
+                remaining.add(elevator);
+            }
+        }
+        return selectElevator(remaining.isEmpty() ? elevators : remaining, request);
+    }
 }
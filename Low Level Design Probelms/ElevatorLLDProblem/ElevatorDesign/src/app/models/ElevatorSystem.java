@@ -1,27 +1,65 @@
 package app.models;
 
+import app.concurrent.Clock;
+import app.concurrent.EventLoopClock;
+
+/**
+ * One building: its own controller, scheduler and (on first use) destination
+ * dispatcher. Buildings share nothing but a clock, if they are given the same one,
+ * so any number of them can run side by side; ElevatorSystemRegistry keys them by
+ * building ID.
+ */
 public class ElevatorSystem {
+    public static final String DEFAULT_BUILDING = "default";
+
     private static ElevatorSystem instance;
-    private ElevatorController controller;
+    private final String buildingId;
+    private final ElevatorController controller;
+    // null when every car runs its own thread
+    private final Clock clock;
+    // created on the first destination call
+    private volatile DestinationDispatcher dispatcher;
+    private EventLoopClock dispatcherClock;
 
-    private ElevatorSystem(int numElevators) {
-        // Using smart scheduler by default
-        this.controller = new ElevatorController(numElevators, new SmartScheduler());
+    public ElevatorSystem(String buildingId, int numElevators, ElevatorScheduler scheduler) {
+        this(buildingId, numElevators, scheduler, null);
     }
 
-    public static synchronized ElevatorSystem getInstance(int numElevators) {
+    /**
+     * With a clock the cars run as events on it (see ElevatorController), which lets
+     * many buildings share one small EventLoopClock instead of a thread per car.
+     */
+    public ElevatorSystem(String buildingId, int numElevators, ElevatorScheduler scheduler, Clock clock) {
+        this.buildingId = buildingId;
+        this.controller = new ElevatorController(numElevators, scheduler, clock);
+        this.clock = clock;
+    }
 
-        synchronized (ElevatorSystem.class) {
-            if (instance == null) {
-                instance = new ElevatorSystem(numElevators);
-            }
+    /**
+     * The process-wide default building, kept for single-building callers; a second
+     * call must ask for the same number of elevators.
+     */
+    public static synchronized ElevatorSystem getInstance(int numElevators) {
+        if (instance == null) {
+            // Using smart scheduler by default
+            instance = new ElevatorSystem(DEFAULT_BUILDING, numElevators, new SmartScheduler());
+        } else if (instance.controller.getElevators().size() != numElevators) {
+            throw new IllegalArgumentException("Default building already has "
+                    + instance.controller.getElevators().size() + " elevators, not " + numElevators);
         }
         return instance;
     }
 
-
+    /**
+     * Destination calls are batched and grouped by DestinationDispatcher; plain hall
+     * calls go straight to the scheduler.
+     */
     public void requestElevator(ExternalRequest request) {
-        controller.handleRequest(request);
+        if (request instanceof DestinationRequest) {
+            getDispatcher().request((DestinationRequest) request);
+        } else {
+            controller.handleRequest(request);
+        }
     }
 
     public void sendInternalRequest(int elevatorId, InternalRequest request) {
@@ -31,4 +69,41 @@ public class ElevatorSystem {
     public Elevator getElevatorStatus(int elevatorId) {
         return controller.getElevators().get(elevatorId - 1);
     }
+
+    public String getBuildingId() {
+        return buildingId;
+    }
+
+    public ElevatorController getController() {
+        return controller;
+    }
+
+    public DestinationDispatcher getDispatcher() {
+        DestinationDispatcher current = dispatcher;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (dispatcher == null) {
+                // threaded buildings get a timer thread for the batching window
+                Clock windowClock = clock;
+                if (windowClock == null) {
+                    dispatcherClock = new EventLoopClock(1);
+                    windowClock = dispatcherClock;
+                }
+                dispatcher = new DestinationDispatcher(controller, windowClock);
+            }
+            return dispatcher;
+        }
+    }
+
+    /**
+     * Stops the threads this building started; a clock passed in is left running.
+     */
+    public synchronized void shutdown() {
+        controller.shutdown();
+        if (dispatcherClock != null) {
+            dispatcherClock.shutdown();
+        }
+    }
 }
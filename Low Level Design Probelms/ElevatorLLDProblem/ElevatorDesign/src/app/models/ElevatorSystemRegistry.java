@@ -0,0 +1,84 @@
+package app.models;
+
+import app.concurrent.Clock;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Independent ElevatorSystem shards keyed by building ID.
+ *
+ * Routing a request is a ConcurrentHashMap lookup, which takes no lock. The building
+ * then picks a car: its scheduler and the candidate cars it reads lock, but those
+ * locks belong to that building alone. Each building gets a fresh scheduler from the
+ * supplier, since schedulers such as CostScheduler index one bank of cars.
+ *
+ * Buildings can be spread over several clocks, by a hash of their ID. Waking a car
+ * schedules a timer on its building's clock, and an EventLoopClock's timer queue has
+ * one lock, so only buildings on the same clock contend there. Give every building
+ * its own clock to share no lock at all.
+ */
+public class ElevatorSystemRegistry {
+
+    private final ConcurrentHashMap<String, ElevatorSystem> buildings = new ConcurrentHashMap<>();
+    // buildings are assigned to these by ID; with none, each car runs its own thread
+    private final Clock[] clocks;
+
+    public ElevatorSystemRegistry() {
+        this(new Clock[0]);
+    }
+
+    public ElevatorSystemRegistry(Clock... clocks) {
+        this.clocks = clocks.clone();
+    }
+
+    /**
+     * Adds a building; fails if the ID is taken.
+     */
+    public ElevatorSystem register(String buildingId, int numElevators, Supplier<ElevatorScheduler> scheduler) {
+        Clock clock = clocks.length == 0 ? null : clocks[Math.floorMod(buildingId.hashCode(), clocks.length)];
+        ElevatorSystem system = new ElevatorSystem(buildingId, numElevators, scheduler.get(), clock);
+        if (buildings.putIfAbsent(buildingId, system) != null) {
+            system.shutdown();
+            throw new IllegalArgumentException("Building already registered: " + buildingId);
+        }
+        return system;
+    }
+
+    public ElevatorSystem get(String buildingId) {
+        ElevatorSystem system = buildings.get(buildingId);
+        if (system == null) {
+            throw new IllegalArgumentException("Unknown building: " + buildingId);
+        }
+        return system;
+    }
+
+    public void requestElevator(String buildingId, ExternalRequest request) {
+        get(buildingId).requestElevator(request);
+    }
+
+    public void sendInternalRequest(String buildingId, int elevatorId, InternalRequest request) {
+        get(buildingId).sendInternalRequest(elevatorId, request);
+    }
+
+    /**
+     * Removes a building and stops its threads; returns false if it was not registered.
+     */
+    public boolean remove(String buildingId) {
+        ElevatorSystem system = buildings.remove(buildingId);
+        if (system == null) {
+            return false;
+        }
+        system.shutdown();
+        return true;
+    }
+
+    public Set<String> getBuildingIds() {
+        return buildings.keySet();
+    }
+
+    public int size() {
+        return buildings.size();
+    }
+}
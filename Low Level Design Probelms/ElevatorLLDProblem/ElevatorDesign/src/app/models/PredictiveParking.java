@@ -0,0 +1,164 @@
+package app.models;
+
+import java.util.Arrays;
+
+/**
+ * Sends idle cars to wait where hall calls are most likely next, instead of leaving
+ * them wherever their last stop was.
+ *
+ * Every hall call the controller assigns is fed to a DemandModel. When a car runs out
+ * of work it is sent to the floor that minimises the expected distance from the next
+ * call to its nearest waiting car, plus MOVE_COST for every floor the car would travel
+ * to get there. Idle cars therefore spread over the building in proportion to demand,
+ * one at the lobby in the morning and the rest where the other calls come from, but
+ * only move when the gain pays for the trip. When a parked car is taken by a call, the
+ * nearest waiting car on each side of its floor is placed again to fill the gap. A car
+ * moves at most once between two calls, so the bank does not shuffle on every call.
+ */
+public class PredictiveParking implements ElevatorListener, RequestListener {
+    private static final int NONE = -1;
+    // floors of expected distance to the next call that one floor of repositioning must save
+    private static final double MOVE_COST = 0.1;
+
+    private final ElevatorController controller;
+    private final DemandModel model;
+    private final double[] demand;
+    private final int[] distances;
+    // floor each car waits at or is heading to, NONE while it serves calls; by id - 1
+    private final int[] parkedAt;
+    // whether a car has already been sent somewhere since its last call; by id - 1
+    private final boolean[] moved;
+
+    public PredictiveParking(ElevatorController controller, DemandModel model) {
+        this.controller = controller;
+        this.model = model;
+        this.demand = new double[model.getFloors()];
+        this.distances = new int[model.getFloors()];
+        // cars start out idle where they stand
+        this.parkedAt = new int[controller.getElevators().size()];
+        this.moved = new boolean[parkedAt.length];
+        for (Elevator elevator : controller.getElevators()) {
+            parkedAt[elevator.getId() - 1] = elevator.getCurrentFloor() < demand.length ? elevator.getCurrentFloor() : NONE;
+        }
+    }
+
+    @Override
+    public void onRequest(ExternalRequest request, Elevator elevator) {
+        model.record(request.getFloor(), controller.getMetrics().now());
+        synchronized (this) {
+            int car = elevator.getId() - 1;
+            int vacated = parkedAt[car];
+            parkedAt[car] = NONE;
+            moved[car] = false;
+            if (vacated != NONE) {
+                fillGap(vacated);
+            }
+        }
+    }
+
+    @Override
+    public void onArrival(Elevator elevator, int floor) {
+    }
+
+    @Override
+    public void onStep(Elevator elevator) {
+        if (isIdle(elevator)) {
+            synchronized (this) {
+                place(elevator);
+            }
+        }
+    }
+
+    public DemandModel getModel() {
+        return model;
+    }
+
+    private static boolean isIdle(Elevator elevator) {
+        return elevator.getDirection() == null && !elevator.hasRequests();
+    }
+
+    // re-places the closest idle cars below and above a floor a parked car has left
+    private void fillGap(int vacated) {
+        Elevator below = null;
+        Elevator above = null;
+        for (Elevator other : controller.getElevators()) {
+            int floor = parkedAt[other.getId() - 1];
+            if (floor == NONE || !isIdle(other)) {
+                continue;
+            }
+            if (floor <= vacated && (below == null || floor > parkedAt[below.getId() - 1])) {
+                below = other;
+            } else if (floor > vacated && (above == null || floor < parkedAt[above.getId() - 1])) {
+                above = other;
+            }
+        }
+        if (below != null) {
+            place(below);
+        }
+        if (above != null) {
+            place(above);
+        }
+    }
+
+    private void place(Elevator elevator) {
+        int car = elevator.getId() - 1;
+        int here = Math.min(elevator.getCurrentFloor(), demand.length - 1);
+        parkedAt[car] = NONE;
+        if (moved[car]) {
+            parkedAt[car] = here;
+            return;
+        }
+        model.predict(controller.getMetrics().now(), demand);
+        double total = 0;
+        for (double calls : demand) {
+            total += calls;
+        }
+        if (total == 0) {
+            parkedAt[car] = here;
+            return;
+        }
+        nearestWaitingCar();
+
+        int best = here;
+        double bestCost = cost(here) / total;
+        for (int floor = 0; floor < demand.length; floor++) {
+            double cost = cost(floor) / total + MOVE_COST * Math.abs(floor - here);
+            if (cost < bestCost) {
+                best = floor;
+                bestCost = cost;
+            }
+        }
+
+        parkedAt[car] = best;
+        if (best != elevator.getCurrentFloor()) {
+            moved[car] = true;
+            controller.park(elevator, best);
+        }
+    }
+
+    // fills distances with the floors between each floor and the closest car waiting for calls
+    private void nearestWaitingCar() {
+        int floors = distances.length;
+        Arrays.fill(distances, floors);
+        for (int floor : parkedAt) {
+            if (floor != NONE) {
+                distances[floor] = 0;
+            }
+        }
+        for (int floor = 1; floor < floors; floor++) {
+            distances[floor] = Math.min(distances[floor], distances[floor - 1] + 1);
+        }
+        for (int floor = floors - 2; floor >= 0; floor--) {
+            distances[floor] = Math.min(distances[floor], distances[floor + 1] + 1);
+        }
+    }
+
+    // floors from every predicted call to its nearest waiting car, with one more car at floor
+    private double cost(int floor) {
+        double cost = 0;
+        for (int call = 0; call < demand.length; call++) {
+            cost += demand[call] * Math.min(distances[call], Math.abs(call - floor));
+        }
+        return cost;
+    }
+}
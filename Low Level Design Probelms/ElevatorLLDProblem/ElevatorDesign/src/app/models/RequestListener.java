@@ -0,0 +1,8 @@
+package app.models;
+
+/**
+ * Notified of every hall call the controller assigns, with the car it went to.
+ */
+public interface RequestListener {
+    void onRequest(ExternalRequest request, Elevator elevator);
+}
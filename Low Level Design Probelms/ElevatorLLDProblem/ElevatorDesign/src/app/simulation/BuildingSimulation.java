@@ -0,0 +1,370 @@
+package app.simulation;
+
+import app.enums.Direction;
+import app.metrics.BankMetrics;
+import app.metrics.Histogram;
+import app.metrics.MetricsReporter;
+import app.models.Elevator;
+import app.models.CostScheduler;
+import app.models.DestinationDispatcher;
+import app.models.DestinationListener;
+import app.models.DestinationRequest;
+import app.models.ElevatorController;
+import app.models.ElevatorListener;
+import app.models.ElevatorScheduler;
+import app.models.ExternalRequest;
+import app.models.InternalRequest;
+import app.models.SimpleScheduler;
+import app.models.SmartScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Replays a day of passenger traffic through an ElevatorController driven by a
+ * SimulationClock, so 24 simulated hours take seconds instead of a day.
+ *
+ * Passengers arrive as a Poisson process whose hourly rate follows an office day
+ * (morning up-peak, lunch, evening down-peak). Each one presses the hall button,
+ * boards the elevator chosen by the scheduler when it stops at their floor, and
+ * then presses their destination inside the car. With a car capacity set, a full
+ * car leaves the rest behind to call again. With destination dispatch the
+ * passenger keys in the destination at the hall instead and boards the car the
+ * DestinationDispatcher assigns.
+ *
+ * Usage: BuildingSimulation [elevators] [floors] [hours] [cost|smart|simple] [passengersPerHour] [destinationWindowMs] [carCapacity] [metricsCsv]
+ */
+public class BuildingSimulation implements ElevatorListener, DestinationListener {
+
+    static final long HOUR_MILLIS = 3_600_000L;
+    // share of the peak rate per hour of the day
+    private static final double[] HOURLY_LOAD = {
+            0.02, 0.01, 0.01, 0.01, 0.02, 0.05, 0.15, 0.60, 1.00, 0.70, 0.40, 0.45,
+            0.80, 0.75, 0.45, 0.40, 0.50, 0.90, 0.70, 0.30, 0.15, 0.08, 0.05, 0.03};
+
+    private final SimulationClock clock = new SimulationClock();
+    private final ElevatorController controller;
+    private final int floors;
+    private final double peakPerHour;
+    private final long endTime;
+    private final Random random = new Random(42);
+
+    // passengers waiting for / riding in each elevator, by floor
+    private final ArrayDeque<Passenger>[][] waiting;
+    private final ArrayDeque<Passenger>[][] riding;
+    private final int[] load;
+    private int capacity = Integer.MAX_VALUE;
+
+    // destination dispatch only
+    private DestinationDispatcher dispatcher;
+    private final Map<DestinationRequest, Long> requestTimes = new HashMap<>();
+
+    // kept as histograms so memory does not grow with the number of passengers
+    private final Histogram waitTimes = new Histogram(24 * HOUR_MILLIS, 7);
+    private final Histogram tripTimes = new Histogram(24 * HOUR_MILLIS, 7);
+    private int arrived;
+    private int boarded;
+    private int delivered;
+
+    // generic arrays cannot be created directly
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BuildingSimulation(int elevators, int floors, int hours, ElevatorScheduler scheduler, double peakPerHour) {
+        this.controller = new ElevatorController(elevators, scheduler, clock);
+        this.floors = floors;
+        this.peakPerHour = peakPerHour;
+        this.endTime = hours * HOUR_MILLIS;
+        this.waiting = new ArrayDeque[elevators + 1][floors];
+        this.riding = new ArrayDeque[elevators + 1][floors];
+        this.load = new int[elevators + 1];
+        controller.addListener(this);
+    }
+
+    /**
+     * Limits how many passengers a car carries; unlimited by default. Call before
+     * useDestinationDispatch, which sizes its groups to it.
+     */
+    public void setCarCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sends every passenger through a DestinationDispatcher with the given batching window.
+     */
+    public void useDestinationDispatch(long windowMillis) {
+        int groupSize = capacity == Integer.MAX_VALUE ? DestinationDispatcher.DEFAULT_CAPACITY : capacity;
+        dispatcher = new DestinationDispatcher(controller, clock, windowMillis,
+                groupSize, DestinationDispatcher.DEFAULT_MAX_STOPS);
+        dispatcher.addListener(this);
+    }
+
+    /**
+     * Sends idle cars to the floors where calls are expected instead of leaving them
+     * at their last stop; see PredictiveParking.
+     */
+    public void useParking() {
+        controller.enableParking(floors);
+    }
+
+    public void run() {
+        scheduleNextPassenger();
+        clock.run();
+    }
+
+    /**
+     * The clock driving the building; TraceReplay schedules recorded arrivals on it
+     * and runs it instead of calling run().
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Appends an hourly snapshot of the controller's metrics to file during run, and
+     * a last one at the end of the simulated day.
+     */
+    public void writeMetrics(Path file) throws IOException {
+        MetricsReporter reporter = new MetricsReporter(controller.getMetrics(), clock, file, HOUR_MILLIS, false);
+        reporter.start();
+        // the reporter reschedules itself, so it has to stop for clock.run() to return
+        clock.scheduleAt(endTime, () -> {
+            reporter.stop();
+            try {
+                reporter.writeSnapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // thinning: draw at the peak rate and keep each arrival with the current hour's share
+    private void scheduleNextPassenger() {
+        double gapMillis = -Math.log(1 - random.nextDouble()) / peakPerHour * HOUR_MILLIS;
+        long next = clock.now() + Math.max(1, (long) gapMillis);
+        if (next >= endTime) {
+            return;
+        }
+        clock.scheduleAt(next, () -> {
+            int hour = (int) (clock.now() / HOUR_MILLIS % 24);
+            if (random.nextDouble() < HOURLY_LOAD[hour]) {
+                newPassenger(hour);
+            }
+            scheduleNextPassenger();
+        });
+    }
+
+    private void newPassenger(int hour) {
+        int origin;
+        int destination;
+        if (hour < 11 && random.nextDouble() < 0.8) {
+            origin = 0;
+            destination = 1 + random.nextInt(floors - 1);
+        } else if (hour >= 16 && random.nextDouble() < 0.8) {
+            origin = 1 + random.nextInt(floors - 1);
+            destination = 0;
+        } else {
+            origin = random.nextInt(floors);
+            destination = (origin + 1 + random.nextInt(floors - 1)) % floors;
+        }
+        addPassenger(origin, destination);
+    }
+
+    /**
+     * A passenger arriving now at origin, bound for destination.
+     */
+    public void addPassenger(int origin, int destination) {
+        arrived++;
+        if (dispatcher != null) {
+            DestinationRequest request = new DestinationRequest(origin, destination);
+            requestTimes.put(request, clock.now());
+            dispatcher.request(request);
+            return;
+        }
+
+        Passenger passenger = new Passenger(destination, clock.now());
+        Direction direction = destination > origin ? Direction.UP : Direction.DOWN;
+        Elevator elevator = controller.handleRequest(new ExternalRequest(origin, direction));
+        queue(waiting, elevator.getId(), origin).add(passenger);
+    }
+
+    @Override
+    public void onArrival(Elevator elevator, int floor) {
+        int id = elevator.getId();
+        long now = clock.now();
+
+        ArrayDeque<Passenger> leaving = riding[id][floor];
+        while (leaving != null && !leaving.isEmpty()) {
+            Passenger passenger = leaving.poll();
+            load[id]--;
+            tripTimes.record(now - passenger.requestTime);
+            delivered++;
+        }
+
+        // riders board only if the car serves their direction here; a stop it still owes
+        // them means it is passing the other way and comes back
+        ArrayDeque<Passenger> boarding = queue(waiting, id, floor);
+        boolean upServed = !elevator.hasStop(floor, Direction.UP);
+        boolean downServed = !elevator.hasStop(floor, Direction.DOWN);
+        List<Passenger> leftBehind = new ArrayList<>();
+        for (Iterator<Passenger> it = boarding.iterator(); it.hasNext(); ) {
+            Passenger passenger = it.next();
+            if (!(passenger.destination > floor ? upServed : downServed)) {
+                continue;
+            }
+            it.remove();
+            if (load[id] >= capacity) {
+                leftBehind.add(passenger);
+                continue;
+            }
+            load[id]++;
+            waitTimes.record(now - passenger.requestTime);
+            boarded++;
+            queue(riding, id, passenger.destination).add(passenger);
+            controller.handleInternalRequest(id, new InternalRequest(passenger.destination));
+        }
+        // left behind by a full car: press the hall button again once it has left, so the
+        // call cannot hold it at this floor. One press per direction, as at a real landing.
+        if (!leftBehind.isEmpty()) {
+            clock.schedule(2 * ElevatorController.FLOOR_TRAVEL_MILLIS, () -> {
+                Elevator up = null;
+                Elevator down = null;
+                for (Passenger passenger : leftBehind) {
+                    Elevator next;
+                    if (passenger.destination > floor) {
+                        next = up != null ? up : (up = controller.handleRequest(new ExternalRequest(floor, Direction.UP), Set.of(elevator)));
+                    } else {
+                        next = down != null ? down : (down = controller.handleRequest(new ExternalRequest(floor, Direction.DOWN), Set.of(elevator)));
+                    }
+                    queue(waiting, next.getId(), floor).add(passenger);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onAssigned(DestinationRequest request, Elevator elevator) {
+    }
+
+    @Override
+    public void onBoarded(DestinationRequest request, Elevator elevator) {
+        long requestTime = requestTimes.remove(request);
+        waitTimes.record(clock.now() - requestTime);
+        boarded++;
+        load[elevator.getId()]++;
+        queue(riding, elevator.getId(), request.getDestination()).add(new Passenger(request.getDestination(), requestTime));
+    }
+
+    private static ArrayDeque<Passenger> queue(ArrayDeque<Passenger>[][] queues, int elevator, int floor) {
+        if (queues[elevator][floor] == null) {
+            queues[elevator][floor] = new ArrayDeque<>();
+        }
+        return queues[elevator][floor];
+    }
+
+    /**
+     * Wait times (hall call to boarding) in milliseconds.
+     */
+    public Histogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Trip times (hall call to arrival at the destination) in milliseconds.
+     */
+    public Histogram getTripTimes() {
+        return tripTimes;
+    }
+
+    public int getPassengers() {
+        return arrived;
+    }
+
+    public int getDelivered() {
+        return delivered;
+    }
+
+    public BankMetrics getMetrics() {
+        return controller.getMetrics();
+    }
+
+    public void printReport(long wallMillis) {
+        Histogram waits = getWaitTimes();
+        Histogram trips = getTripTimes();
+
+        System.out.printf("simulated %.1f h (%d events) in %d ms wall time%n",
+                clock.now() / (double) HOUR_MILLIS, clock.getProcessedEvents(), wallMillis);
+        System.out.printf("passengers %d, boarded %d, delivered %d%n", arrived, boarded, delivered);
+        System.out.printf("wait  avg %.1f s, p50 %.1f s, p95 %.1f s, max %.1f s%n",
+                average(waits), percentile(waits, 0.50), percentile(waits, 0.95), percentile(waits, 1.0));
+        System.out.printf("trip  avg %.1f s, p50 %.1f s, p95 %.1f s, max %.1f s%n",
+                average(trips), percentile(trips, 0.50), percentile(trips, 0.95), percentile(trips, 1.0));
+
+        BankMetrics metrics = controller.getMetrics();
+        System.out.printf("floors travelled %d, stops %d, %.1f per trip, reversals %d, dispatch p50 %d ns, p99 %d ns%n",
+                metrics.getFloorsTravelled(), metrics.getStops(), metrics.getStopsPerTrip().getMean(), metrics.getReversals(),
+                metrics.getDecisionNanos().getValueAtPercentile(0.50), metrics.getDecisionNanos().getValueAtPercentile(0.99));
+    }
+
+    // both in seconds
+    static double average(Histogram millis) {
+        return millis.getMean() / 1000.0;
+    }
+
+    static double percentile(Histogram millis, double p) {
+        return millis.getValueAtPercentile(p) / 1000.0;
+    }
+
+    private static final class Passenger {
+        private final int destination;
+        private final long requestTime;
+
+        private Passenger(int destination, long requestTime) {
+            this.destination = destination;
+            this.requestTime = requestTime;
+        }
+    }
+
+    static ElevatorScheduler scheduler(String name) {
+        switch (name) {
+            case "simple":
+                return new SimpleScheduler();
+            case "smart":
+                return new SmartScheduler();
+            case "cost":
+                return new CostScheduler();
+            default:
+                throw new IllegalArgumentException("Unknown scheduler: " + name);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int elevators = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int floors = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int hours = args.length > 2 ? Integer.parseInt(args[2]) : 24;
+        ElevatorScheduler scheduler = scheduler(args.length > 3 ? args[3] : "cost");
+        double peakPerHour = args.length > 4 ? Double.parseDouble(args[4]) : 40.0 * elevators;
+        long destinationWindow = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        int capacity = args.length > 6 ? Integer.parseInt(args[6]) : Integer.MAX_VALUE;
+        String metricsFile = args.length > 7 ? args[7] : null;
+
+        BuildingSimulation simulation = new BuildingSimulation(elevators, floors, hours, scheduler, peakPerHour);
+        simulation.setCarCapacity(capacity);
+        if (destinationWindow > 0) {
+            simulation.useDestinationDispatch(destinationWindow);
+        }
+        if (metricsFile != null) {
+            simulation.writeMetrics(Path.of(metricsFile));
+        }
+        long start = System.nanoTime();
+        simulation.run();
+        simulation.printReport((System.nanoTime() - start) / 1_000_000);
+    }
+}
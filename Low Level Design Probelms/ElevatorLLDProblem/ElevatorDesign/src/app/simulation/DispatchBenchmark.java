@@ -0,0 +1,99 @@
+package app.simulation;
+
+import app.metrics.Histogram;
+import app.models.Elevator;
+import app.models.ElevatorListener;
+import app.models.ElevatorScheduler;
+import app.models.ExternalRequest;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares schedulers on the same simulated day: passenger wait times, and the
+ * wall-clock latency of each selectElevator call, for growing elevator banks.
+ *
+ * Usage: DispatchBenchmark [floors] [hours] [bankSize ...]  (default 60 floors, 24 h, 25 100 400 cars)
+ */
+public class DispatchBenchmark {
+
+    private static final String[] SCHEDULERS = {"simple", "smart", "cost"};
+
+    public static void main(String[] args) {
+        int floors = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int hours = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+        int[] banks = {25, 100, 400};
+        if (args.length > 2) {
+            banks = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                banks[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        // warm up the JIT on a short run of every scheduler
+        for (String name : SCHEDULERS) {
+            new BuildingSimulation(banks[0], floors, 2, BuildingSimulation.scheduler(name), 40.0 * banks[0]).run();
+        }
+
+        System.out.printf("%6s %-8s %12s %12s %12s %14s%n", "cars", "scheduler", "avg wait s", "p95 wait s", "avg trip s", "dispatch ns");
+        for (int cars : banks) {
+            for (String name : SCHEDULERS) {
+                TimedScheduler scheduler = new TimedScheduler(BuildingSimulation.scheduler(name));
+                BuildingSimulation simulation = new BuildingSimulation(cars, floors, hours, scheduler, 40.0 * cars);
+                simulation.run();
+
+                Histogram waits = simulation.getWaitTimes();
+                System.out.printf("%6d %-8s %12.1f %12.1f %12.1f %,14.0f%n", cars, name,
+                        BuildingSimulation.average(waits), BuildingSimulation.percentile(waits, 0.95),
+                        BuildingSimulation.average(simulation.getTripTimes()), scheduler.averageNanos());
+            }
+        }
+    }
+
+    // measures selectElevator and forwards step callbacks to schedulers that index cars
+    private static final class TimedScheduler implements ElevatorScheduler, ElevatorListener {
+        private final ElevatorScheduler delegate;
+        private long calls;
+        private long nanos;
+
+        private TimedScheduler(ElevatorScheduler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Elevator selectElevator(List<Elevator> elevators, ExternalRequest request) {
+            long start = System.nanoTime();
+            Elevator elevator = delegate.selectElevator(elevators, request);
+            nanos += System.nanoTime() - start;
+            calls++;
+            return elevator;
+        }
+
+        @Override
+        public Elevator selectElevator(List<Elevator> elevators, ExternalRequest request, Set<Elevator> excluded) {
+            long start = System.nanoTime();
+            Elevator elevator = delegate.selectElevator(elevators, request, excluded);
+            nanos += System.nanoTime() - start;
+            calls++;
+            return elevator;
+        }
+
+        @Override
+        public void onArrival(Elevator elevator, int floor) {
+            if (delegate instanceof ElevatorListener) {
+                ((ElevatorListener) delegate).onArrival(elevator, floor);
+            }
+        }
+
+        @Override
+        public void onStep(Elevator elevator) {
+            if (delegate instanceof ElevatorListener) {
+                ((ElevatorListener) delegate).onStep(elevator);
+            }
+        }
+
+        private double averageNanos() {
+            return calls == 0 ? 0 : (double) nanos / calls;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package app.simulation;
+
+import app.concurrent.EventLoopClock;
+import app.models.Elevator;
+import app.models.ElevatorController;
+import app.models.ElevatorListener;
+import app.models.InternalRequest;
+import app.models.SimpleScheduler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs growing elevator banks for a few wall-clock seconds under the two execution
+ * models - a processing thread per car, and every car on a shared EventLoopClock -
+ * and reports peak live threads, resident memory and arrivals served for each.
+ *
+ * Usage: ExecutionModelBenchmark [seconds] [loopThreads] [maxThreadedCars] [cars ...]
+ *        (default 5 s, 2 loop threads, threaded model up to 10000 cars, 100 1000 10000 cars)
+ */
+public class ExecutionModelBenchmark {
+
+    private static final int FLOORS = 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int loopThreads = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int maxThreadedCars = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int[] banks = {100, 1000, 10_000};
+        if (args.length > 3) {
+            banks = new int[args.length - 3];
+            for (int i = 3; i < args.length; i++) {
+                banks[i - 3] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%8s %-12s %10s %10s %10s %12s%n", "cars", "model", "threads", "rss MB", "heap MB", "arrivals");
+        // event loop first: the JVM rarely hands memory back, so thread stacks would inflate later rows
+        for (int cars : banks) {
+            run(cars, seconds, new EventLoopClock(loopThreads));
+        }
+        for (int cars : banks) {
+            if (cars <= maxThreadedCars) {
+                run(cars, seconds, null);
+            }
+        }
+    }
+
+    private static void run(int cars, int seconds, EventLoopClock clock) throws InterruptedException {
+        ElevatorController controller = new ElevatorController(cars, new SimpleScheduler(), clock);
+        List<Elevator> elevators = controller.getElevators();
+        for (Elevator elevator : elevators) {
+            elevator.setVerbose(false);
+        }
+        LongAdder arrivals = new LongAdder();
+        controller.addListener(new ElevatorListener() {
+            @Override
+            public void onArrival(Elevator elevator, int floor) {
+                arrivals.increment();
+            }
+        });
+
+        // keep every car busy: a new stop for each car once per floor travel time
+        Random random = new Random(cars);
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        long threads = 0;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < elevators.size(); i++) {
+                controller.handleInternalRequest(i + 1, new InternalRequest(random.nextInt(FLOORS)));
+            }
+            threads = Math.max(threads, ManagementFactory.getThreadMXBean().getThreadCount());
+            Thread.sleep(ElevatorController.FLOOR_TRAVEL_MILLIS);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%8d %-12s %10d %10s %10d %12d%n", cars, clock == null ? "threads" : "event-loop",
+                threads, residentMegabytes(), heap >> 20, arrivals.sum());
+
+        controller.shutdown();
+        if (clock != null) {
+            clock.shutdown();
+        }
+        // let the stopped threads exit before the next configuration is measured
+        Thread.sleep(ElevatorController.FLOOR_TRAVEL_MILLIS);
+    }
+
+    // resident set size from procfs; "-" where it is not available
+    private static String residentMegabytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return String.valueOf(Long.parseLong(line.replaceAll("\\D", "")) >> 10);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return "-";
+    }
+}
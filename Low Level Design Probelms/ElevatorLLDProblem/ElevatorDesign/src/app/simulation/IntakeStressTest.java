@@ -0,0 +1,99 @@
+package app.simulation;
+
+import app.enums.Direction;
+import app.models.Elevator;
+import app.models.ElevatorController;
+import app.models.ElevatorScheduler;
+import app.models.ExternalRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hammers handleRequest from growing numbers of concurrent callers against
+ * threaded elevators that are moving the whole time, and reports the latency of
+ * each call. With the lock-free intake the percentiles stay flat as callers grow.
+ *
+ * Usage: IntakeStressTest [elevators] [floors] [requestsPerCaller] [callers ...]
+ *        (default 8 elevators, 50 floors, 200 requests, 10 100 1000 4000 callers)
+ */
+public class IntakeStressTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int elevators = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int floors = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int[] rounds = {10, 100, 1000, 4000};
+        if (args.length > 3) {
+            rounds = new int[args.length - 3];
+            for (int i = 3; i < args.length; i++) {
+                rounds[i - 3] = Integer.parseInt(args[i]);
+            }
+        }
+
+        // warm up the JIT before measuring
+        run(elevators, floors, requests, 50);
+
+        System.out.printf("%8s %10s %10s %10s %10s %12s%n", "callers", "requests", "p50 ns", "p99 ns", "max ns", "calls/s");
+        for (int callers : rounds) {
+            run(elevators, floors, requests, callers);
+        }
+    }
+
+    private static void run(int elevators, int floors, int requests, int callers) throws InterruptedException {
+        ElevatorController controller = new ElevatorController(elevators, new SpreadScheduler());
+        for (Elevator elevator : controller.getElevators()) {
+            elevator.setVerbose(false);
+        }
+
+        long[][] latencies = new long[callers][requests];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(callers);
+        Thread[] threads = new Thread[callers];
+        for (int c = 0; c < callers; c++) {
+            long[] mine = latencies[c];
+            threads[c] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < requests; i++) {
+                        ExternalRequest request = new ExternalRequest(random.nextInt(floors),
+                                random.nextBoolean() ? Direction.UP : Direction.DOWN);
+                        long begin = System.nanoTime();
+                        controller.handleRequest(request);
+                        mine[i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            threads[c].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = new long[callers * requests];
+        for (int c = 0; c < callers; c++) {
+            System.arraycopy(latencies[c], 0, all, c * requests, requests);
+        }
+        Arrays.sort(all);
+        System.out.printf("%8d %10d %10d %10d %10d %12.0f%n", callers, all.length,
+                all[(int) (all.length * 0.50)], all[(int) (all.length * 0.99)], all[all.length - 1],
+                all.length / (elapsed / 1e9));
+    }
+
+    // no shared state, so the measurement is the intake path rather than a scheduler lock
+    private static final class SpreadScheduler implements ElevatorScheduler {
+        @Override
+        public Elevator selectElevator(List<Elevator> elevators, ExternalRequest request) {
+            return elevators.get(ThreadLocalRandom.current().nextInt(elevators.size()));
+        }
+    }
+}
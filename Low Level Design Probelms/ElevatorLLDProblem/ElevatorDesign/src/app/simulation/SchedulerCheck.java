@@ -0,0 +1,60 @@
+package app.simulation;
+
+import app.enums.Direction;
+import app.models.CostScheduler;
+import app.models.Elevator;
+import app.models.ElevatorController;
+import app.models.ElevatorScheduler;
+import app.models.ExternalRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Checks that CostScheduler gives new hall calls to idle cars rather than to a car
+ * that is already loaded, including calls queued in the same instant and calls from
+ * floors no car has been near yet. SmartScheduler is not checked: it ranks cars by
+ * distance alone. Exits with status 1 on a failure.
+ *
+ * Usage: SchedulerCheck
+ */
+public class SchedulerCheck {
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        check("cost", CostScheduler::new);
+        if (failures > 0) {
+            System.out.println(failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("all checks passed");
+    }
+
+    private static void check(String name, Supplier<ElevatorScheduler> scheduler) {
+        // a burst of calls before any car has stepped: one call per car
+        ElevatorController controller = new ElevatorController(4, scheduler.get(), new SimulationClock());
+        int[] floors = {2, 4, 6, 7};
+        for (int i = 0; i < floors.length; i++) {
+            Elevator car = controller.handleRequest(new ExternalRequest(floors[i], Direction.UP));
+            expect(name + " burst call at floor " + floors[i], car.getId() == i + 1, car);
+        }
+
+        // car 1 is loaded with four stops, cars 2-4 are idle at the lobby
+        controller = new ElevatorController(4, scheduler.get(), new SimulationClock());
+        Elevator loaded = controller.getElevators().get(0);
+        for (int floor = 1; floor <= 4; floor++) {
+            loaded.addRequest(floor, Direction.UP);
+        }
+        for (int floor : new int[]{20, 60}) {
+            Elevator car = controller.handleRequest(new ExternalRequest(floor, Direction.DOWN));
+            expect(name + " call at floor " + floor + " with car 1 loaded", car != loaded, car);
+        }
+    }
+
+    private static void expect(String check, boolean passed, Elevator car) {
+        System.out.printf("%-6s %s: car %d%n", passed ? "ok" : "FAILED", check, car.getId());
+        if (!passed) {
+            failures++;
+        }
+    }
+}
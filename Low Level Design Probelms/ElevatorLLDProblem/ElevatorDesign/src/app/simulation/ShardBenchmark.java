@@ -0,0 +1,93 @@
+package app.simulation;
+
+import app.concurrent.EventLoopClock;
+import app.enums.Direction;
+import app.models.CostScheduler;
+import app.models.ElevatorSystemRegistry;
+import app.models.ExternalRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Routes hall calls from growing numbers of caller threads to random buildings of an
+ * ElevatorSystemRegistry and reports the request throughput. Buildings are spread
+ * over several single-thread EventLoopClocks, one per core by default, and each has
+ * its own CostScheduler, so callers contend only when they hit the same building, or
+ * two buildings on the same clock, at the same moment.
+ *
+ * Usage: ShardBenchmark [buildings] [elevatorsPerBuilding] [requestsPerCaller] [loops] [callers ...]
+ *        (default 500 buildings, 20 elevators, 100000 requests, one loop per core, 1 2 4 8 callers)
+ */
+public class ShardBenchmark {
+
+    private static final int FLOORS = 40;
+
+    public static void main(String[] args) throws InterruptedException {
+        int buildings = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int elevators = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int loops = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int[] rounds = {1, 2, 4, 8};
+        if (args.length > 4) {
+            rounds = new int[args.length - 4];
+            for (int i = 4; i < args.length; i++) {
+                rounds[i - 4] = Integer.parseInt(args[i]);
+            }
+        }
+
+        EventLoopClock[] clocks = new EventLoopClock[loops];
+        for (int i = 0; i < loops; i++) {
+            clocks[i] = new EventLoopClock(1);
+        }
+        ElevatorSystemRegistry registry = new ElevatorSystemRegistry(clocks);
+        String[] ids = new String[buildings];
+        for (int i = 0; i < buildings; i++) {
+            ids[i] = "building-" + i;
+            registry.register(ids[i], elevators, CostScheduler::new);
+        }
+
+        System.out.printf("%d buildings x %d elevators, %d event loops on %d cores%n", buildings, elevators,
+                loops, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %12s %14s%n", "callers", "requests", "requests/s");
+        run(registry, ids, requests, 1); // warm-up
+        for (int callers : rounds) {
+            double perSecond = run(registry, ids, requests, callers);
+            System.out.printf("%8d %12d %,14.0f%n", callers, (long) callers * requests, perSecond);
+        }
+
+        for (String id : ids) {
+            registry.remove(id);
+        }
+        for (EventLoopClock clock : clocks) {
+            clock.shutdown();
+        }
+    }
+
+    private static double run(ElevatorSystemRegistry registry, String[] ids, int requests, int callers)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(callers);
+        for (int c = 0; c < callers; c++) {
+            Thread caller = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < requests; i++) {
+                        registry.requestElevator(ids[random.nextInt(ids.length)], new ExternalRequest(
+                                random.nextInt(FLOORS), random.nextBoolean() ? Direction.UP : Direction.DOWN));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            caller.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return (double) callers * requests / ((System.nanoTime() - begin) / 1e9);
+    }
+}
@@ -0,0 +1,81 @@
+package app.simulation;
+
+import app.concurrent.Clock;
+
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event clock: scheduled tasks wait in a priority queue ordered by due time,
+ * and run() jumps straight from one event to the next. Simulated hours therefore cost
+ * only as much as the events in them. Events due at the same time run in the order
+ * they were scheduled. Not thread safe; everything runs on the caller's thread.
+ */
+public class SimulationClock implements Clock {
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+    private long processed;
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public void schedule(long delayMillis, Runnable task) {
+        scheduleAt(now + Math.max(0, delayMillis), task);
+    }
+
+    public void scheduleAt(long time, Runnable task) {
+        events.add(new Event(Math.max(time, now), sequence++, task));
+    }
+
+    /**
+     * Runs events until none are left.
+     */
+    public void run() {
+        runUntil(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs every event due at or before endTime, then advances the clock to endTime.
+     */
+    public void runUntil(long endTime) {
+        while (!events.isEmpty() && events.peek().time <= endTime) {
+            Event event = events.poll();
+            now = event.time;
+            processed++;
+            event.task.run();
+        }
+        if (endTime != Long.MAX_VALUE) {
+            now = Math.max(now, endTime);
+        }
+    }
+
+    public int getPendingEvents() {
+        return events.size();
+    }
+
+    public long getProcessedEvents() {
+        return processed;
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long sequence;
+        private final Runnable task;
+
+        private Event(long time, long sequence, Runnable task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package app.simulation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes a synthetic passenger trace for TraceReplay: Poisson arrivals at a fixed
+ * rate, with origins and destinations drawn from one traffic pattern. Rows are
+ * written as they are drawn, so traces of any length take no memory.
+ *
+ * Usage: TraceGenerator <uppeak|downpeak|lunch|interfloor> <out.csv> [floors] [passengersPerHour] [hours] [seed]
+ */
+public class TraceGenerator {
+
+    public static final String HEADER = "time_ms,origin,destination";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TraceGenerator <uppeak|downpeak|lunch|interfloor> <out.csv> [floors] [passengersPerHour] [hours] [seed]");
+            System.exit(1);
+        }
+        String pattern = args[0];
+        Path out = Path.of(args[1]);
+        int floors = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        double perHour = args.length > 3 ? Double.parseDouble(args[3]) : 4000;
+        int hours = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        long rows = write(pattern, out, floors, perHour, hours, new Random(seed));
+        System.out.printf("wrote %d passengers to %s%n", rows, out);
+    }
+
+    public static long write(String pattern, Path out, int floors, double perHour, int hours, Random random) throws IOException {
+        // share of passengers starting at the lobby / heading to the lobby; the rest travel between floors
+        double fromLobby;
+        double toLobby;
+        switch (pattern) {
+            case "uppeak":
+                fromLobby = 0.85;
+                toLobby = 0.05;
+                break;
+            case "downpeak":
+                fromLobby = 0.05;
+                toLobby = 0.85;
+                break;
+            case "lunch":
+                fromLobby = 0.45;
+                toLobby = 0.45;
+                break;
+            case "interfloor":
+                fromLobby = 0.0;
+                toLobby = 0.0;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pattern: " + pattern);
+        }
+
+        long end = hours * BuildingSimulation.HOUR_MILLIS;
+        long rows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            long time = 0;
+            while (true) {
+                time += Math.max(1, (long) (-Math.log(1 - random.nextDouble()) / perHour * BuildingSimulation.HOUR_MILLIS));
+                if (time >= end) {
+                    break;
+                }
+                int origin;
+                int destination;
+                double kind = random.nextDouble();
+                if (kind < fromLobby) {
+                    origin = 0;
+                    destination = 1 + random.nextInt(floors - 1);
+                } else if (kind < fromLobby + toLobby) {
+                    origin = 1 + random.nextInt(floors - 1);
+                    destination = 0;
+                } else {
+                    origin = 1 + random.nextInt(floors - 1);
+                    destination = 1 + (origin + random.nextInt(floors - 2)) % (floors - 1);
+                }
+                writer.write(time + "," + origin + "," + destination);
+                writer.newLine();
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
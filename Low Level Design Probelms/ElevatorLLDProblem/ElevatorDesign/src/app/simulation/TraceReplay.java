@@ -0,0 +1,139 @@
+package app.simulation;
+
+import app.metrics.BankMetrics;
+import app.metrics.Histogram;
+import app.models.ElevatorScheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a recorded or generated passenger trace through a BuildingSimulation, once
+ * per scheduler, and compares wait and journey times and floors travelled (the energy
+ * proxy).
+ *
+ * A trace is CSV with one passenger per row, "time_ms,origin,destination", sorted by
+ * time; an optional header line and '#' comments are skipped (see TraceGenerator).
+ * The file is read one row ahead of the simulation clock: each arrival event
+ * schedules the next row, and results go into histograms, so memory does not depend
+ * on the length of the trace.
+ *
+ * Usage: TraceReplay <trace.csv> [elevators] [floors] [schedulers] [carCapacity]
+ *        (default 100 elevators, 60 floors, "simple,smart,cost", unlimited capacity;
+ *        a "+park" suffix, as in "cost,cost+park", adds predictive parking of idle cars)
+ */
+public class TraceReplay {
+
+    private final BuildingSimulation simulation;
+    private final SimulationClock clock;
+    private final BufferedReader reader;
+    private final int floors;
+    private long lineNumber;
+    private long lastTime;
+
+    private TraceReplay(BuildingSimulation simulation, BufferedReader reader, int floors) {
+        this.simulation = simulation;
+        this.clock = simulation.getClock();
+        this.reader = reader;
+        this.floors = floors;
+    }
+
+    /**
+     * Runs the whole trace and returns the finished simulation for its figures.
+     */
+    public static BuildingSimulation replay(Path trace, int elevators, int floors, ElevatorScheduler scheduler,
+                                            int capacity) throws IOException {
+        return replay(trace, elevators, floors, scheduler, capacity, false);
+    }
+
+    public static BuildingSimulation replay(Path trace, int elevators, int floors, ElevatorScheduler scheduler,
+                                            int capacity, boolean parking) throws IOException {
+        // no synthetic traffic: every passenger comes from the trace
+        BuildingSimulation simulation = new BuildingSimulation(elevators, floors, 0, scheduler, 0);
+        simulation.setCarCapacity(capacity);
+        if (parking) {
+            simulation.useParking();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(trace, StandardCharsets.UTF_8)) {
+            TraceReplay replay = new TraceReplay(simulation, reader, floors);
+            replay.scheduleNext();
+            simulation.getClock().run();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return simulation;
+    }
+
+    private void scheduleNext() throws IOException {
+        String row;
+        while ((row = reader.readLine()) != null) {
+            lineNumber++;
+            row = row.trim();
+            if (row.isEmpty() || row.startsWith("#") || (lineNumber == 1 && !Character.isDigit(row.charAt(0)))) {
+                continue;
+            }
+
+            String[] fields = row.split(",");
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected time_ms,origin,destination");
+            }
+            long time = Long.parseLong(fields[0].trim());
+            int origin = Integer.parseInt(fields[1].trim());
+            int destination = Integer.parseInt(fields[2].trim());
+            if (time < lastTime) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": trace is not sorted by time");
+            }
+            if (origin < 0 || origin >= floors || destination < 0 || destination >= floors || origin == destination) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": bad floors " + origin + " -> " + destination);
+            }
+            lastTime = time;
+
+            clock.scheduleAt(time, () -> {
+                simulation.addPassenger(origin, destination);
+                try {
+                    scheduleNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceReplay <trace.csv> [elevators] [floors] [schedulers] [carCapacity]");
+            System.exit(1);
+        }
+        Path trace = Path.of(args[0]);
+        int elevators = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int floors = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String[] schedulers = (args.length > 3 ? args[3] : "simple,smart,cost").split(",");
+        int capacity = args.length > 4 ? Integer.parseInt(args[4]) : Integer.MAX_VALUE;
+
+        System.out.printf("%-10s %10s %8s %8s %8s %8s %8s %8s %12s %10s %8s%n", "scheduler", "passengers",
+                "wait avg", "p95", "p99", "trip avg", "p95", "p99", "floors", "per pass.", "ms");
+        for (String name : schedulers) {
+            long start = System.nanoTime();
+            boolean parking = name.endsWith("+park");
+            ElevatorScheduler scheduler = BuildingSimulation.scheduler(parking ? name.substring(0, name.length() - 5) : name);
+            BuildingSimulation simulation = replay(trace, elevators, floors, scheduler, capacity, parking);
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Histogram waits = simulation.getWaitTimes();
+            Histogram trips = simulation.getTripTimes();
+            BankMetrics metrics = simulation.getMetrics();
+            int passengers = simulation.getPassengers();
+            System.out.printf("%-10s %10d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %12d %10.1f %8d%n", name, passengers,
+                    BuildingSimulation.average(waits), BuildingSimulation.percentile(waits, 0.95),
+                    BuildingSimulation.percentile(waits, 0.99), BuildingSimulation.average(trips),
+                    BuildingSimulation.percentile(trips, 0.95), BuildingSimulation.percentile(trips, 0.99),
+                    metrics.getFloorsTravelled(), passengers == 0 ? 0 : metrics.getFloorsTravelled() / (double) passengers,
+                    wallMillis);
+        }
+    }
+}